@@ -2,24 +2,48 @@ package fr.dtn.javacord;
 
 import com.moandjiezana.toml.Toml;
 import fr.dtn.javacord.commands.raw.RawCommand;
-import fr.dtn.javacord.commands.slash.Parameter;
+import fr.dtn.javacord.commands.raw.RawCommandIndex;
 import fr.dtn.javacord.commands.slash.SlashCommand;
+import fr.dtn.javacord.commands.slash.SlashCommandRouter;
+import fr.dtn.javacord.commands.slash.autocomplete.AutoCompleteEngine;
 import fr.dtn.javacord.database.Database;
+import fr.dtn.javacord.database.WriteBehindBuffer;
+import fr.dtn.javacord.event.DispatchMode;
+import fr.dtn.javacord.event.EventDispatcher;
 import fr.dtn.javacord.event.EventHandler;
+import fr.dtn.javacord.event.EventHandlerIndex;
+import fr.dtn.javacord.event.OverflowPolicy;
+import fr.dtn.javacord.interaction.AckLatency;
 import fr.dtn.javacord.interaction.ButtonExecutor;
+import fr.dtn.javacord.interaction.ButtonPayload;
+import fr.dtn.javacord.interaction.ComponentExecutor;
+import fr.dtn.javacord.interaction.ComponentRouter;
+import fr.dtn.javacord.interaction.InteractionContext;
 import fr.dtn.javacord.interaction.JavacordButton;
+import fr.dtn.javacord.interaction.StatelessButtonExecutor;
+import fr.dtn.javacord.interaction.StatelessComponentExecutor;
+import fr.dtn.javacord.ratelimit.RateLimit;
+import fr.dtn.javacord.ratelimit.RateLimiter;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.EntitySelectInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
 import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.interactions.InteractionHook;
-import net.dv8tion.jda.api.interactions.commands.build.Commands;
-import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
 import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import net.dv8tion.jda.api.interactions.components.buttons.ButtonStyle;
+import net.dv8tion.jda.api.interactions.components.selections.EntitySelectMenu;
+import net.dv8tion.jda.api.interactions.components.selections.StringSelectMenu;
+import net.dv8tion.jda.api.interactions.modals.Modal;
 import net.dv8tion.jda.api.requests.ErrorResponse;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
@@ -31,12 +55,22 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Bot {
     private static final Logger logger = LogManager.getLogger(Bot.class);
@@ -45,22 +79,44 @@ public class Bot {
             GatewayIntent.GUILD_MESSAGES, GatewayIntent.DIRECT_MESSAGES, GatewayIntent.MESSAGE_CONTENT
     };
     private static final OnlineStatus DEFAULT_STATUS = OnlineStatus.ONLINE;
+    private static final String SLASH_COMMANDS_HASH_FILE = ".slash-commands.sha256";
+    private static final DispatchMode DEFAULT_DISPATCH_MODE = DispatchMode.INLINE;
+    private static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    private static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.BLOCK;
+    private static final Duration DEFAULT_DEFER_AFTER = Duration.ofSeconds(2);
+    private static final int DEFAULT_MAX_BUTTONS = 10000;
 
     private final File directory;
     private final Toml config;
     private final String commandPrefix;
     private ShardManager bot;
+    private final EventDispatcher dispatcher;
+    private final ScheduledExecutorService scheduler;
     private final boolean debugMode;
 
-    private final List<EventHandler<?>> eventHandlers;
+    private volatile EventHandlerIndex eventHandlers;
     private final List<RawCommand> rawCommands;
-    private final List<SlashCommand> slashCommands;
-    private final List<JavacordButton> buttons;
+    private volatile RawCommandIndex rawCommandIndex;
+    private volatile SlashCommandRouter slashCommands;
+    private final AtomicBoolean slashCommandsPublished;
+    private volatile boolean slashCommandsLoaded;
+    private final AutoCompleteEngine autoCompleteEngine;
+    private final ComponentRouter components;
+    private ComponentExecutor<IReplyCallback> expiredComponentExecutor;
+
+    private final RateLimit defaultRateLimit;
+    private final RateLimiter buttonRateLimiter;
+
+    private final Duration deferAfter;
+    private final boolean deferEphemeral;
+    private final ConcurrentHashMap<String, AckLatency> ackLatencies;
 
     private Database database;
 
     private MessageEmbed noPermissionMessage = EmbedUtils.createError("You do not have the permission to use this command");
     private MessageEmbed errorMessage = EmbedUtils.createError("An internal error has occurred");
+    private MessageEmbed rateLimitedMessage = EmbedUtils.createError("You are doing this too fast, please wait a bit");
+    private MessageEmbed expiredComponentMessage = EmbedUtils.createError("This interaction has expired");
 
     public Bot(String path) {
         // Load directory
@@ -188,6 +244,36 @@ public class Bot {
         this.commandPrefix = config.getString("bot.prefix", "!");
         logger.info("Using raw command prefix '{}'", commandPrefix);
 
+        // Load rate limits
+        this.defaultRateLimit = RateLimit.fromToml(config.getTable("ratelimit"), null);
+        RateLimit buttonRateLimit = RateLimit.fromToml(config.getTable("ratelimit.buttons"), null);
+        this.buttonRateLimiter = buttonRateLimit == null ? null : new RateLimiter(buttonRateLimit);
+
+        logger.info("Using default command rate limit : {}", defaultRateLimit == null ? "NONE" : defaultRateLimit);
+        logger.info("Using button rate limit : {}", buttonRateLimit == null ? "NONE" : buttonRateLimit);
+
+        // Load interaction deferral
+        Object deferAfterSeconds = config.getTable("interactions") == null ? null : config.getTable("interactions").toMap().get("deferAfter");
+        this.deferAfter = deferAfterSeconds instanceof Number seconds ? Duration.ofMillis(Math.round(seconds.doubleValue() * 1000)) : DEFAULT_DEFER_AFTER;
+        this.deferEphemeral = config.getBoolean("interactions.ephemeral", false);
+        this.ackLatencies = new ConcurrentHashMap<>();
+
+        if (deferAfter.compareTo(InteractionContext.ACK_DEADLINE) >= 0) {
+            logger.warn("The interactions are deferred after {} ms, which is later than the {} ms allowed by Discord", deferAfter.toMillis(), InteractionContext.ACK_DEADLINE.toMillis());
+        }
+
+        logger.info("Deferring unacknowledged interactions after : {}", deferAfter.isZero() || deferAfter.isNegative() ? "NEVER" : deferAfter.toMillis() + " ms");
+
+        // Load button registry limits
+        Object buttonTtlSeconds = config.getTable("buttons") == null ? null : config.getTable("buttons").toMap().get("ttl");
+        Duration buttonTtl = buttonTtlSeconds instanceof Number seconds ? Duration.ofMillis(Math.round(seconds.doubleValue() * 1000)) : Duration.ZERO;
+        int buttonMaxSize = config.getLong("buttons.maxSize", (long) DEFAULT_MAX_BUTTONS).intValue();
+
+        logger.info("Keeping at most {} buttons, select menus and modals, for {}", buttonMaxSize <= 0 ? "unlimited" : buttonMaxSize, buttonTtl.isZero() || buttonTtl.isNegative() ? "an unlimited time" : buttonTtl.toSeconds() + " seconds");
+
+        boolean ignoreCommandCase = config.getBoolean("bot.ignoreCase", false);
+        boolean commandAbbreviations = config.getBoolean("bot.abbreviations", false);
+
         logger.info("Bot created successfully !");
 
         this.debugMode = config.getBoolean("log.debug", false);
@@ -199,40 +285,193 @@ public class Bot {
 
         if (databaseUrl != null && databaseUser != null) {
             try {
-                this.database = new Database(this, databaseUrl, databaseUser, databasePassword);
+                this.database = new Database(this, databaseUrl, databaseUser, databasePassword, config.getTable("database"));
             } catch (IllegalArgumentException e) {
-                logger.warn("Invalid database url, user, or password");
+                logger.warn("Unable to use the database : {}", e.getMessage());
                 this.database = null;
             }
         } else {
             this.database = null;
         }
 
+        // Load dispatch mode
+        String dispatchModeName = config.getString("dispatch.mode");
+        DispatchMode dispatchMode;
+
+        try {
+            Objects.requireNonNull(dispatchModeName);
+            dispatchMode = DispatchMode.valueOf(dispatchModeName.toUpperCase());
+        } catch (NullPointerException | IllegalArgumentException e) {
+            if (dispatchModeName != null) {
+                logger.warn("The dispatch mode specified in the config is invalid : '{}'", dispatchModeName);
+            }
+
+            dispatchMode = DEFAULT_DISPATCH_MODE;
+        }
+
+        if (dispatchMode == DispatchMode.VIRTUAL && !EventDispatcher.supportsVirtualThreads()) {
+            logger.warn("The dispatch mode VIRTUAL requires Java 21 or later, running on Java {} : using dispatch mode POOL instead", Runtime.version().feature());
+            dispatchMode = DispatchMode.POOL;
+        }
+
+        int dispatchThreads = config.getLong("dispatch.threads", (long) Runtime.getRuntime().availableProcessors()).intValue();
+        logger.info("Using dispatch mode {}", dispatchMode);
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "javacord-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Most automatic deferrals are cancelled, as the interactions are acknowledged in time
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler = scheduler;
+
+        this.eventHandlers = EventHandlerIndex.EMPTY;
+        this.rawCommands = new ArrayList<>();
+        this.rawCommandIndex = RawCommandIndex.EMPTY;
+        this.slashCommands = SlashCommandRouter.EMPTY;
+        this.slashCommandsPublished = new AtomicBoolean();
+        this.autoCompleteEngine = new AutoCompleteEngine(this, config.getTable("autocomplete"));
+        this.components = new ComponentRouter(buttonTtl, buttonMaxSize);
+        this.expiredComponentExecutor = (bot, event, context) -> context.replyEmbeds(expiredComponentMessage);
+
+        int queueCapacity = config.getLong("dispatch.capacity", (long) DEFAULT_QUEUE_CAPACITY).intValue();
+        OverflowPolicy overflowPolicy = readOverflowPolicy(config.getString("dispatch.overflow"), DEFAULT_OVERFLOW_POLICY);
+
+        this.dispatcher = new EventDispatcher(dispatchMode, dispatchThreads, queueCapacity, overflowPolicy, new JavacordEventHandler(this));
+
+        // Load event queues from config
+        Toml queues = config.getTable("dispatch.queues");
+
+        if (queues != null) {
+            for (String eventType : queues.toMap().keySet()) {
+                Toml queue = queues.getTable(eventType);
+
+                if (queue == null) {
+                    logger.warn("The queue of event type '{}' is not a table and will be ignored", eventType);
+                    continue;
+                }
+
+                int capacity = queue.getLong("capacity", (long) queueCapacity).intValue();
+                OverflowPolicy policy = readOverflowPolicy(queue.getString("overflow"), overflowPolicy);
+
+                dispatcher.configureQueue(eventType, capacity, policy);
+                logger.info("Using a queue of {} {} events with policy {}", capacity, eventType, policy);
+            }
+        }
+
         // Create bot
         try {
             this.bot = botBuilder.build();
-            this.bot.addEventListener(new JavacordEventHandler(this));
+            this.bot.addEventListener(dispatcher);
         } catch (InvalidTokenException e) {
             logger.error("The token specified in the config is invalid");
             System.exit(0);
         }
 
-        this.eventHandlers = new ArrayList<>();
-        this.rawCommands = new ArrayList<>();
-        this.slashCommands = new ArrayList<>();
-        this.buttons = new ArrayList<>();
+        RawCommandIndex.Builder rawCommandIndexBuilder = new RawCommandIndex.Builder(ignoreCommandCase, commandAbbreviations);
+        registerRawCommands(rawCommandIndexBuilder, new File(this.directory, "commands/raw"));
+        this.rawCommandIndex = rawCommandIndexBuilder.build();
+        this.slashCommands = new SlashCommandRouter.Builder(defaultRateLimit).load(new File(this.directory, "commands/slash")).build();
+        this.autoCompleteEngine.register(slashCommands);
+        this.slashCommandsLoaded = true;
+
+        // A shard may have been ready before the commands were loaded
+        this.bot.getShards().stream()
+                .filter(jda -> jda.getStatus() == JDA.Status.CONNECTED)
+                .findFirst()
+                .ifPresent(this::publishSlashCommands);
+
+        scheduler.scheduleAtFixedRate(this::evictIdleRateLimits, 1, 1, TimeUnit.MINUTES);
+        scheduler.scheduleAtFixedRate(autoCompleteEngine::evictExpired, 1, 1, TimeUnit.MINUTES);
+        scheduler.scheduleAtFixedRate(components::evictExpired, 1, 1, TimeUnit.MINUTES);
+
+        if (database != null) {
+            scheduler.scheduleAtFixedRate(database::evictExpired, 1, 1, TimeUnit.MINUTES);
+
+            WriteBehindBuffer writeBehind = database.getWriteBehindBuffer();
+
+            if (writeBehind != null) {
+                long interval = writeBehind.getFlushInterval().toMillis();
+                scheduler.scheduleWithFixedDelay(writeBehind::flush, interval, interval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void evictIdleRateLimits() {
+        for (RawCommand command : rawCommands) {
+            if (command.getRateLimiter() != null) {
+                command.getRateLimiter().evictIdle();
+            }
+        }
+
+        for (SlashCommand command : slashCommands.getCommands()) {
+            if (command.getRateLimiter() != null) {
+                command.getRateLimiter().evictIdle();
+            }
+        }
+
+        if (buttonRateLimiter != null) {
+            buttonRateLimiter.evictIdle();
+        }
+    }
+
+    private static OverflowPolicy readOverflowPolicy(String name, OverflowPolicy defaultPolicy) {
+        if (name == null) {
+            return defaultPolicy;
+        }
+
+        try {
+            return OverflowPolicy.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("The overflow policy specified in the config is invalid : '{}'", name);
+            return defaultPolicy;
+        }
+    }
+
+    /**
+     * Disconnects every shard, then waits for the events that are still being handled.
+     * The database writes still buffered are flushed before the database is closed.
+     */
+    public void shutdown() {
+        logger.info("Shutting down the bot...");
 
-        registerRawCommands(new File(this.directory, "commands/raw"));
-        registerSlashCommands(new File(this.directory, "commands/slash"));
+        this.bot.shutdown();
+        this.dispatcher.shutdown(10, TimeUnit.SECONDS);
+        this.scheduler.shutdown();
+        this.autoCompleteEngine.shutdown();
+
+        if (database != null) {
+            this.database.close();
+        }
     }
 
     public void registerEventHandlers(EventHandler<?> first, EventHandler<?>... others) {
-        this.eventHandlers.add(first);
-        this.eventHandlers.addAll(Arrays.asList(others));
+        registerEventHandler(first);
+
+        for (EventHandler<?> handler : others) {
+            registerEventHandler(handler);
+        }
     }
 
     public void registerEventHandler(EventHandler<?> handler) {
-        eventHandlers.add(handler);
+        Class<? extends GenericEvent> eventType;
+
+        try {
+            eventType = EventHandlerIndex.resolveEventType(handler);
+        } catch (IllegalArgumentException e) {
+            logger.error("An error occured while registering the event handler : {}", handler.getClass().getName());
+            logger.error("CAUSE : The handled event type cannot be determined, consider using Bot#registerEventHandler(Class, EventHandler)");
+
+            throw e;
+        }
+
+        registerEventHandler(eventType, handler);
+    }
+
+    public synchronized <T extends GenericEvent> void registerEventHandler(Class<T> eventType, EventHandler<? super T> handler) {
+        this.eventHandlers = eventHandlers.with(eventType, handler);
     }
 
     public void registerEventHandler(Class<? extends EventHandler<?>> handlerClass) {
@@ -265,20 +504,19 @@ public class Bot {
         }
     }
 
-    private void registerRawCommand(File file) {
-        RawCommand command = new RawCommand(file);
+    private void registerRawCommand(RawCommandIndex.Builder index, File file) {
+        RawCommand command = new RawCommand(file, defaultRateLimit);
+        String usedCall = index.add(command);
 
-        for (String call : command.getCalls()) {
-            if (getRawCommandByCall(call) != null) {
-                logger.error("The command from file '{}' has an already used call : '{}'", file.getPath(), call);
-                throw new IllegalArgumentException("The command from file '" + file.getPath() + "' has an already used call : '" + call + "'");
-            }
+        if (usedCall != null) {
+            logger.error("The command from file '{}' has an already used call : '{}'", file.getPath(), usedCall);
+            throw new IllegalArgumentException("The command from file '" + file.getPath() + "' has an already used call : '" + usedCall + "'");
         }
 
         rawCommands.add(command);
     }
 
-    private void registerRawCommands(File directory) {
+    private void registerRawCommands(RawCommandIndex.Builder index, File directory) {
         if (!directory.exists() || directory.isFile()) {
             return;
         }
@@ -291,56 +529,95 @@ public class Bot {
 
         for (File file : subFiles) {
             if (file.isDirectory()) {
-                registerRawCommands(file);
+                registerRawCommands(index, file);
             } else {
-                registerRawCommand(file);
+                registerRawCommand(index, file);
             }
         }
     }
 
-    private void registerSlashCommand(File file){
-        SlashCommand command = new SlashCommand(file);
-        SlashCommandData data = Commands.slash(command.getDisplayName(), command.getDescription());
-
-        for(Parameter parameter : command.getParameters()) {
-            OptionData option = new OptionData(parameter.type(), parameter.name(), parameter.description());
-            String[] choices = parameter.choices();
+    private static String hashSlashCommands(List<SlashCommandData> commands) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
 
-            for(String choice : choices) {
-                option.addChoices(new net.dv8tion.jda.api.interactions.commands.Command.Choice(choice, choice));
-            }
+            commands.stream()
+                    .map(command -> command.toData().toString())
+                    .sorted()
+                    .forEach(command -> digest.update(command.getBytes(StandardCharsets.UTF_8)));
 
-            data.addOptions(option);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new InternalError(e);
         }
-
-        this.bot.getShards().forEach(jda -> jda.updateCommands().addCommands(data).queue());
-        this.slashCommands.add(command);
     }
 
-    private void registerSlashCommands(File directory) {
-        if (!directory.exists() || directory.isFile()) {
+    /**
+     * Sends every slash command to Discord in a single bulk update, unless the same set of commands was already sent.
+     * Global commands are shared by every shard, so this is done once, from the first shard that is ready.
+     * If the update fails, it is tried again the next time a shard is ready, and the hash of the commands is not saved.
+     *
+     * @param jda a ready shard.
+     */
+    protected void publishSlashCommands(JDA jda) {
+        if (!slashCommandsLoaded || !slashCommandsPublished.compareAndSet(false, true)) {
             return;
         }
 
-        File[] subFiles = directory.listFiles();
+        File hashFile = new File(directory, SLASH_COMMANDS_HASH_FILE);
+        List<SlashCommandData> slashCommandData = slashCommands.getCommandData();
+        String hash = hashSlashCommands(slashCommandData);
 
-        if (subFiles == null) {
-            return;
-        }
-
-        for (File file : subFiles) {
-            if (file.isDirectory()) {
-                registerSlashCommands(file);
-            } else {
-                registerSlashCommand(file);
+        try {
+            if (hashFile.exists() && Files.readString(hashFile.toPath()).trim().equals(hash)) {
+                logger.info("The slash commands did not change since the last update : skipping it");
+                return;
             }
+        } catch (IOException e) {
+            logger.warn("Unable to read the slash commands hash file '{}'", hashFile.getPath());
         }
+
+        logger.info("Updating {} slash commands", slashCommandData.size());
+
+        jda.updateCommands().addCommands(slashCommandData).queue(
+                commands -> {
+                    logger.info("{} slash commands updated successfully", commands.size());
+
+                    try {
+                        Files.writeString(hashFile.toPath(), hash);
+                    } catch (IOException e) {
+                        logger.warn("Unable to write the slash commands hash file '{}'", hashFile.getPath());
+                    }
+                },
+                fail -> {
+                    // Let the next ready shard, or the next reconnection, try again
+                    slashCommandsPublished.set(false);
+                    logger.error("Unable to update the slash commands : {}", fail.getMessage());
+                }
+        );
     }
 
-    protected List<EventHandler<?>> getEventHandlers() {
+    protected EventHandlerIndex getEventHandlers() {
         return eventHandlers;
     }
 
+    public EventDispatcher getEventDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * @return a single-threaded scheduler for short periodic or delayed maintenance tasks.
+     */
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return the rate limiter of the buttons, or null if buttons are not rate limited.
+     */
+    public RateLimiter getButtonRateLimiter() {
+        return buttonRateLimiter;
+    }
+
     public File getDirectory() {
         return directory;
     }
@@ -358,15 +635,11 @@ public class Bot {
     }
 
     public RawCommand getRawCommandByCall(String call) {
-        for (RawCommand command : rawCommands) {
-            for (String commandCall : command.getCalls()) {
-                if (commandCall.equals(call)) {
-                    return command;
-                }
-            }
-        }
+        return rawCommandIndex.get(call);
+    }
 
-        return null;
+    public RawCommandIndex getRawCommandIndex() {
+        return rawCommandIndex;
     }
 
     public MessageEmbed getNoPermissionMessage() {
@@ -377,14 +650,63 @@ public class Bot {
         this.noPermissionMessage = noPermissionMessage;
     }
 
+    /**
+     * @param name the full path of a command, such as 'ping', 'admin/ban' or 'admin/user/ban'.
+     * @return the command, or null if there is none.
+     */
     public SlashCommand getSlashCommandByName(String name) {
-        for (SlashCommand command : slashCommands) {
-            if (command.getDisplayName().equals(name)) {
-                return command;
-            }
+        return slashCommands.get(name);
+    }
+
+    public SlashCommandRouter getSlashCommandRouter() {
+        return slashCommands;
+    }
+
+    /**
+     * Starts tracking the acknowledgement of an interaction, and schedules its automatic deferral.
+     *
+     * @param event      the interaction.
+     * @param receivedAt the {@link System#nanoTime()} at which the interaction was created, see {@link InteractionContext#getReceivedAt}.
+     * @param name       the name under which the acknowledgement latency is recorded, such as 'slash/admin/ban'.
+     * @return the context of the interaction.
+     */
+    public InteractionContext createInteractionContext(IReplyCallback event, long receivedAt, String name) {
+        return createInteractionContext(event, receivedAt, name, true);
+    }
+
+    /**
+     * Starts tracking the acknowledgement of an interaction.
+     *
+     * @param deferrable whether the interaction is deferred automatically : only when its executor receives the context,
+     *                   since the others answer with the event itself, which fails once the interaction is deferred.
+     * @see #createInteractionContext(IReplyCallback, long, String)
+     */
+    public InteractionContext createInteractionContext(IReplyCallback event, long receivedAt, String name, boolean deferrable) {
+        AckLatency latency = ackLatencies.get(name);
+
+        if (latency == null) {
+            latency = ackLatencies.computeIfAbsent(name, key -> new AckLatency());
         }
 
-        return null;
+        InteractionContext context = new InteractionContext(event, receivedAt, deferEphemeral, latency);
+
+        if (deferrable && !deferAfter.isZero() && !deferAfter.isNegative()) {
+            context.scheduleDeferral(scheduler, deferAfter);
+        }
+
+        return context;
+    }
+
+    /**
+     * @return the acknowledgement latencies of the slash commands ('slash/&lt;path&gt;'), the components ('button', 'select', 'modal')
+     * and the stateless components ('button/&lt;key&gt;', 'select/&lt;key&gt;', 'modal/&lt;key&gt;').
+     */
+    public Map<String, AckLatency> getAckLatencies() {
+        return Collections.unmodifiableMap(ackLatencies);
+    }
+
+    public AutoCompleteEngine getAutoCompleteEngine() {
+        return autoCompleteEngine;
     }
 
     public void sendTemporalMessage(InteractionHook hook, String message, long duration, TimeUnit unit) {
@@ -423,25 +745,152 @@ public class Bot {
         sendTemporalEmbed(hook, embed.build(), duration, unit);
     }
 
+    /**
+     * @param id the custom id of a button.
+     * @return the button, or null if it does not exist, or if it was evicted or expired.
+     */
     public JavacordButton getButtonById(String id) {
-        for (JavacordButton button : buttons) {
-            if (button.getId().toString().equals(id)) {
-                return button;
-            }
-        }
+        return components.get(id) instanceof JavacordButton button ? button : null;
+    }
 
-        return null;
+    /**
+     * @return the router of the buttons, select menus and modals created by the bot.
+     */
+    public ComponentRouter getComponentRouter() {
+        return components;
     }
 
     public Button createButton(JavacordButton button) {
-        this.buttons.add(button);
-        return Button.of(button.getStyle(), button.getId().toString(), button.getLabel());
+        String id = components.register(button.getCustomId(), ButtonInteractionEvent.class, button, button.getTtl(), button.isSingleUse());
+        return Button.of(button.getStyle(), id, button.getLabel());
     }
 
     public Button createButton(ButtonStyle style, String label, ButtonExecutor executor) {
         return createButton(new JavacordButton(style, label, executor));
     }
 
+    public Button createButton(ButtonStyle style, String label, ButtonExecutor.WithContext executor) {
+        return createButton(new JavacordButton(style, label, executor));
+    }
+
+    /**
+     * @param ttl       how long the button can be clicked, or null to use the default time to live.
+     * @param singleUse whether the button can only be clicked once.
+     */
+    public Button createButton(ButtonStyle style, String label, ButtonExecutor executor, Duration ttl, boolean singleUse) {
+        return createButton(new JavacordButton(style, label, executor, ttl, singleUse));
+    }
+
+    /**
+     * @see #createButton(ButtonStyle, String, ButtonExecutor, Duration, boolean)
+     */
+    public Button createButton(ButtonStyle style, String label, ButtonExecutor.WithContext executor, Duration ttl, boolean singleUse) {
+        return createButton(new JavacordButton(style, label, executor, ttl, singleUse));
+    }
+
+    /**
+     * Creates a string select menu handled by an executor, with the same lifecycle as buttons.
+     *
+     * @param ttl       how long the menu can be used, or null to use the default time to live.
+     * @param singleUse whether the menu can only be used once.
+     * @return the builder of the menu, whose custom id is already set.
+     */
+    public StringSelectMenu.Builder createStringSelectMenu(ComponentExecutor<StringSelectInteractionEvent> executor, Duration ttl, boolean singleUse) {
+        return StringSelectMenu.create(components.register(StringSelectInteractionEvent.class, executor, ttl, singleUse));
+    }
+
+    public StringSelectMenu.Builder createStringSelectMenu(ComponentExecutor<StringSelectInteractionEvent> executor) {
+        return createStringSelectMenu(executor, null, false);
+    }
+
+    /**
+     * Creates an entity (user, role, channel) select menu handled by an executor, with the same lifecycle as buttons.
+     *
+     * @return the builder of the menu, whose custom id is already set.
+     * @see #createStringSelectMenu(ComponentExecutor, Duration, boolean)
+     */
+    public EntitySelectMenu.Builder createEntitySelectMenu(EntitySelectMenu.SelectTarget target, ComponentExecutor<EntitySelectInteractionEvent> executor, Duration ttl, boolean singleUse) {
+        return EntitySelectMenu.create(components.register(EntitySelectInteractionEvent.class, executor, ttl, singleUse), target);
+    }
+
+    public EntitySelectMenu.Builder createEntitySelectMenu(EntitySelectMenu.SelectTarget target, ComponentExecutor<EntitySelectInteractionEvent> executor) {
+        return createEntitySelectMenu(target, executor, null, false);
+    }
+
+    /**
+     * Creates a modal handled by an executor when it is submitted. Modals are single-use, as they can only be submitted once.
+     *
+     * @param ttl how long the modal can be submitted, or null to use the default time to live.
+     * @return the builder of the modal, whose custom id is already set.
+     */
+    public Modal.Builder createModal(String title, ComponentExecutor<ModalInteractionEvent> executor, Duration ttl) {
+        return Modal.create(components.register(ModalInteractionEvent.class, executor, ttl, true), title);
+    }
+
+    public Modal.Builder createModal(String title, ComponentExecutor<ModalInteractionEvent> executor) {
+        return createModal(title, executor, null);
+    }
+
+    /**
+     * Registers the executor of the stateless buttons created with a key.
+     *
+     * @param key      a short key, without ':'.
+     * @param executor the executor.
+     */
+    public void registerButtonExecutor(String key, StatelessButtonExecutor executor) {
+        registerComponentExecutor(key, ButtonInteractionEvent.class, executor);
+    }
+
+    /**
+     * Registers the executor of the stateless components (buttons, select menus or modals) created with a key.
+     * The custom id of such components is built with {@link ButtonPayload#toCustomId(String)}.
+     *
+     * @param key      a short key, without ':', shared by every type of component.
+     * @param type     the type of the interactions handled by the executor.
+     * @param executor the executor.
+     */
+    public <E extends IReplyCallback> void registerComponentExecutor(String key, Class<E> type, StatelessComponentExecutor<? super E> executor) {
+        try {
+            components.registerExecutor(key, type, executor);
+        } catch (IllegalArgumentException e) {
+            logger.error(e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a stateless button : its executor and payload are encoded in its custom id, so it takes no memory.
+     *
+     * @param key     the key of the executor, registered with {@link #registerButtonExecutor(String, StatelessButtonExecutor)}.
+     * @param payload the data given to the executor when the button is clicked.
+     */
+    public Button createButton(ButtonStyle style, String label, String key, ButtonPayload payload) {
+        return Button.of(style, payload.toCustomId(key), label);
+    }
+
+    public Button createButton(ButtonStyle style, String label, String key, long... payload) {
+        return createButton(style, label, key, ButtonPayload.ofLongs(payload));
+    }
+
+    /**
+     * @return the executor called when a component that was evicted, expired or already used is used.
+     */
+    public ComponentExecutor<IReplyCallback> getExpiredComponentExecutor() {
+        return expiredComponentExecutor;
+    }
+
+    public void setExpiredComponentExecutor(ComponentExecutor<IReplyCallback> expiredComponentExecutor) {
+        this.expiredComponentExecutor = expiredComponentExecutor;
+    }
+
+    public MessageEmbed getExpiredComponentMessage() {
+        return expiredComponentMessage;
+    }
+
+    public void setExpiredComponentMessage(MessageEmbed expiredComponentMessage) {
+        this.expiredComponentMessage = expiredComponentMessage;
+    }
+
     public Database getDatabase() {
         if (database != null) {
             return database;
@@ -457,4 +906,12 @@ public class Bot {
     public void setErrorMessage(MessageEmbed errorMessage) {
         this.errorMessage = errorMessage;
     }
+
+    public MessageEmbed getRateLimitedMessage() {
+        return rateLimitedMessage;
+    }
+
+    public void setRateLimitedMessage(MessageEmbed rateLimitedMessage) {
+        this.rateLimitedMessage = rateLimitedMessage;
+    }
 }
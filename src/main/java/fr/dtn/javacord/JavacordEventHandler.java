@@ -1,28 +1,36 @@
 package fr.dtn.javacord;
 
+import fr.dtn.javacord.commands.raw.RawArgumentException;
 import fr.dtn.javacord.commands.raw.RawCommand;
+import fr.dtn.javacord.commands.raw.RawCommandTokenizer;
 import fr.dtn.javacord.commands.slash.SlashCommand;
 import fr.dtn.javacord.event.EventHandler;
-import fr.dtn.javacord.interaction.JavacordButton;
+import fr.dtn.javacord.interaction.ButtonPayload;
+import fr.dtn.javacord.interaction.ComponentExecutor;
+import fr.dtn.javacord.interaction.ComponentRouter;
+import fr.dtn.javacord.interaction.InteractionContext;
+import fr.dtn.javacord.interaction.StatelessComponentExecutor;
+import fr.dtn.javacord.ratelimit.RateLimiter;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.EntitySelectInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
-import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.util.Arrays;
-import java.util.List;
 
 public class JavacordEventHandler extends ListenerAdapter {
     private final static Logger logger = LogManager.getLogger(Bot.class);
@@ -34,30 +42,15 @@ public class JavacordEventHandler extends ListenerAdapter {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void onGenericEvent(@NotNull GenericEvent event) {
-        String eventId = event.getClass().getSimpleName();
-
         if (bot.isDebugMode()) {
-            logger.info("Event occurred : {}", eventId);
+            logger.info("Event occurred : {}", event.getClass().getSimpleName());
         }
 
-        for (EventHandler<?> handler : bot.getEventHandlers()) {
+        for (EventHandler<?> handler : bot.getEventHandlers().getHandlers(event.getClass())) {
             try {
-                Type[] genericInterfaces = handler.getClass().getGenericInterfaces();
-
-                if (genericInterfaces.length != 1) {
-                    throw new InternalError("An event handler instance has more than one generic interface");
-                }
-
-                for (Type type : ((ParameterizedType) genericInterfaces[0]).getActualTypeArguments()) {
-                    Class<? extends GenericEvent> caster = (Class<? extends GenericEvent>) type;
-
-                    if (caster.isInstance(event)) {
-                        handler.getClass().cast(handler).onEvent(bot, caster.cast(event));
-                        break;
-                    }
-                }
-            } catch (ClassCastException ignored) {
+                ((EventHandler<GenericEvent>) handler).onEvent(bot, event);
             } catch (Exception e) {
                 logger.warn("An error occured while executing one of your EventHandler instances");
                 throw e;
@@ -65,44 +58,62 @@ public class JavacordEventHandler extends ListenerAdapter {
         }
     }
 
+    @Override
+    public void onReady(@NotNull ReadyEvent event) {
+        bot.publishSlashCommands(event.getJDA());
+    }
+
     @Override
     public void onMessageReceived(@NotNull MessageReceivedEvent event) { // TODO : solve possibles issues when commands are used in DM with bot
         User author = event.getAuthor();
         Member member = event.getMember();
         Message message = event.getMessage();
         String text = message.getContentRaw();
+        String prefix = bot.getCommandPrefix();
 
-        if (author.isBot() || member ==  null || !text.startsWith(bot.getCommandPrefix())) {
+        if (author.isBot() || member ==  null || !text.startsWith(prefix)) {
             return;
         }
 
-        Guild guild = event.getGuild();
-        TextChannel channel = event.getChannel().asTextChannel();
-
-        List<String> split = Arrays.asList(text.split(" +"));
-        String commandName = split.get(0).substring(bot.getCommandPrefix().length());
-        List<String> args = split.subList(1, split.size());
-
-        RawCommand command = bot.getRawCommandByCall(commandName);
+        // Resolve the command directly from the message content, so that messages that are not commands cost nothing
+        int nameEnd = RawCommandTokenizer.findWordEnd(text, prefix.length());
+        RawCommand command = bot.getRawCommandIndex().get(text, prefix.length(), nameEnd);
 
         if (command == null) {
             return;
         }
 
+        Guild guild = event.getGuild();
+        TextChannel channel = event.getChannel().asTextChannel();
+
         if (!member.hasPermission(command.getPermissions())) {
             message.replyEmbeds(bot.getNoPermissionMessage()).queue();
             return;
         }
 
+        if (command.getRateLimiter() != null && !command.getRateLimiter().tryAcquire(author, guild)) {
+            if (bot.isDebugMode()) {
+                logger.info("'{}' command was called by @{} -> refused : rate limited", command.getDisplayName(), author.getName());
+            }
+
+            return; // Answering every spammed message would cost as much as executing the command
+        }
+
         if (bot.isDebugMode()) {
             logger.info("'{}' command was called by @{}", command.getDisplayName(), author.getName());
         }
 
-        command.execute(bot, guild, channel, message, author, member, args.toArray(String[]::new));
+        try {
+            command.execute(bot, guild, channel, message, author, member, RawCommandTokenizer.tokenize(text, nameEnd));
+        } catch (RawArgumentException e) {
+            String usage = prefix + text.substring(prefix.length(), nameEnd) + " " + command.getArguments().getUsage();
+            message.replyEmbeds(EmbedUtils.createError(e.getMessage() + "\nUsage : " + usage)).queue();
+        }
     }
 
     @Override
     public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
+        long receivedAt = InteractionContext.getReceivedAt(event);
         Guild guild = event.getGuild();
 
         if(guild == null)
@@ -115,12 +126,11 @@ public class JavacordEventHandler extends ListenerAdapter {
         if(member == null)
             return;
 
-        SlashCommand command = bot.getSlashCommandByName(event.getName());
+        SlashCommand command = bot.getSlashCommandRouter().route(event.getName(), event.getSubcommandGroup(), event.getSubcommandName());
 
         if(command == null){
-            logger.warn("No executor for slash command '" + event.getName() + "' : Unable to execute it");
-            event.deferReply().queue();
-            event.deferReply(true).queue(hook -> hook.sendMessageEmbeds(bot.getErrorMessage()).queue());
+            logger.warn("No executor for slash command '" + event.getFullCommandName() + "' : Unable to execute it");
+            event.replyEmbeds(bot.getErrorMessage()).setEphemeral(true).queue();
             return;
         }
 
@@ -129,8 +139,16 @@ public class JavacordEventHandler extends ListenerAdapter {
                 logger.info("@"+author.getName()+" (" + member.getNickname()+") tried to call slash command '"+command.getDisplayName()+"' ("+member.getNickname()+") on ("+guild.getName()+"#"+channel.getName()+") -> refused : missing permission(s)");
             }
 
-            event.deferReply().queue();
-            event.deferReply(true).queue(hook -> hook.sendMessageEmbeds(bot.getNoPermissionMessage()).queue());
+            event.replyEmbeds(bot.getNoPermissionMessage()).setEphemeral(true).queue();
+            return;
+        }
+
+        if (command.getRateLimiter() != null && !command.getRateLimiter().tryAcquire(author, guild)) {
+            if (bot.isDebugMode()) {
+                logger.info("@"+author.getName()+" tried to call slash command '"+command.getDisplayName()+"' -> refused : rate limited");
+            }
+
+            event.replyEmbeds(bot.getRateLimitedMessage()).setEphemeral(true).queue();
             return;
         }
 
@@ -138,22 +156,101 @@ public class JavacordEventHandler extends ListenerAdapter {
             logger.info(author.getName()+" ("+member.getNickname()+") use slash command '"+command.getDisplayName()+"' in ("+guild.getName()+"/"+channel.getName()+")");
         }
 
-        command.execute(bot, event);
+        InteractionContext context = bot.createInteractionContext(event, receivedAt, "slash/" + command.getPath(), command.usesContext());
+
+        try {
+            command.execute(bot, event, context);
+        } catch (RuntimeException e) {
+            logger.error("An error occurred while executing slash command '" + command.getPath() + "'", e);
+            context.replyEmbeds(bot.getErrorMessage());
+        } finally {
+            context.executed();
+        }
+    }
+
+    @Override
+    public void onCommandAutoCompleteInteraction(@NotNull CommandAutoCompleteInteractionEvent event) {
+        bot.getAutoCompleteEngine().handle(event);
     }
 
     @Override
     public void onButtonInteraction(@NotNull ButtonInteractionEvent event) {
-        Button button = event.getButton();
-        String buttonId = button.getId();
-        JavacordButton executor = bot.getButtonById(buttonId);
+        onComponentInteraction(event, event.getComponentId());
+    }
 
-        if (executor == null) {
-            logger.warn("No executor for button with id='" + buttonId + "' and label='" + button.getLabel() + "' : Unable to execute it");
-            event.deferReply().queue();
-            event.deferReply(true).queue(hook -> hook.sendMessageEmbeds(bot.getErrorMessage()).queue());
+    @Override
+    public void onStringSelectInteraction(@NotNull StringSelectInteractionEvent event) {
+        onComponentInteraction(event, event.getComponentId());
+    }
+
+    @Override
+    public void onEntitySelectInteraction(@NotNull EntitySelectInteractionEvent event) {
+        onComponentInteraction(event, event.getComponentId());
+    }
+
+    @Override
+    public void onModalInteraction(@NotNull ModalInteractionEvent event) {
+        onComponentInteraction(event, event.getModalId());
+    }
+
+    private <E extends IReplyCallback> void onComponentInteraction(E event, String componentId) {
+        // The other components are handled by the event handlers of the bot
+        if (!ComponentRouter.isRouted(componentId)) {
+            return;
+        }
+
+        long receivedAt = InteractionContext.getReceivedAt(event);
+
+        // Checked first, so that a rate limited interaction does not use a single-use component
+        RateLimiter rateLimiter = bot.getButtonRateLimiter();
+
+        if (rateLimiter != null && !rateLimiter.tryAcquire(event.getUser(), event.getGuild())) {
+            event.replyEmbeds(bot.getRateLimitedMessage()).setEphemeral(true).queue();
+            return;
+        }
+
+        ComponentRouter router = bot.getComponentRouter();
+        String kind = ComponentRouter.getKind(event);
+
+        if (ComponentRouter.isStateless(componentId)) {
+            int separator = componentId.indexOf(ButtonPayload.SEPARATOR);
+            String key = componentId.substring(ComponentRouter.PREFIX.length(), separator);
+            StatelessComponentExecutor<? super E> executor = router.getExecutor(key, event);
+            InteractionContext context = bot.createInteractionContext(event, receivedAt, kind + "/" + key);
+
+            if (executor == null) {
+                logger.warn("No " + kind + " executor registered for stateless components with key '" + key + "' : Unable to execute it");
+                execute(event, componentId, context, bot.getExpiredComponentExecutor());
+                return;
+            }
+
+            ButtonPayload payload = ButtonPayload.parse(componentId, separator + 1);
+            execute(event, componentId, context, (b, e, c) -> executor.run(b, e, payload, c));
             return;
         }
 
-        executor.execute(bot, event);
+        ComponentExecutor<? super E> executor = router.claim(componentId, event);
+
+        if (executor == null) {
+            if (bot.isDebugMode()) {
+                logger.info("@" + event.getUser().getName() + " used the evicted, expired or unknown " + kind + " with id='" + componentId + "'");
+            }
+
+            executor = bot.getExpiredComponentExecutor();
+        }
+
+        InteractionContext context = bot.createInteractionContext(event, receivedAt, kind, executor.usesContext());
+        execute(event, componentId, context, executor);
+    }
+
+    private <E extends IReplyCallback> void execute(E event, String componentId, InteractionContext context, ComponentExecutor<? super E> executor) {
+        try {
+            executor.run(bot, event, context);
+        } catch (RuntimeException e) {
+            logger.error("An error occurred while executing component with id='" + componentId + "'", e);
+            context.replyEmbeds(bot.getErrorMessage());
+        } finally {
+            context.executed();
+        }
     }
 }
@@ -0,0 +1,4 @@
+package fr.dtn.javacord.commands.raw;
+
+public record RawArgument(RawArgumentType type, String name, boolean required, String[] values) {
+}
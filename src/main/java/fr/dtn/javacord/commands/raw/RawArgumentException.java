@@ -0,0 +1,11 @@
+package fr.dtn.javacord.commands.raw;
+
+/**
+ * Thrown when the arguments given to a raw command do not match its argument schema.
+ * The message of the exception is meant to be shown to the user who called the command.
+ */
+public class RawArgumentException extends IllegalArgumentException {
+    public RawArgumentException(String message) {
+        super(message);
+    }
+}
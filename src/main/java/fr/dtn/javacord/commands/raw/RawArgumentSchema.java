@@ -0,0 +1,155 @@
+package fr.dtn.javacord.commands.raw;
+
+import com.moandjiezana.toml.Toml;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The typed arguments of a raw command, compiled once from the '[arguments]' section of its configuration file.
+ */
+public class RawArgumentSchema {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Loads the argument schema of a command.
+     *
+     * @param command the configuration of the command.
+     * @param path    the path of the configuration file, used in error messages.
+     * @return the schema, or null if the configuration has no '[arguments]' section.
+     * @throws IllegalArgumentException if the section is invalid.
+     */
+    static RawArgumentSchema fromToml(Toml command, String path) {
+        if (!command.contains("arguments")) {
+            return null;
+        }
+
+        List<String> names = command.getList("arguments.name");
+        List<String> typeNames = command.getList("arguments.type");
+        List<Boolean> required = command.getList("arguments.required");
+        List<List<String>> values = command.getList("arguments.values");
+
+        if (names == null || typeNames == null || required == null) {
+            logger.error("The arguments of the command file '{}' must define the 'name', 'type' and 'required' lists", path);
+            throw new IllegalArgumentException("The arguments of the command file '" + path + "' must define the 'name', 'type' and 'required' lists");
+        }
+
+        for (List<?> list : Arrays.asList(typeNames, required, values)) {
+            if (list != null && list.size() != names.size()) {
+                logger.error("The arguments of the command file '{}' have different amounts of values", path);
+                throw new IllegalArgumentException("The arguments of the command file '" + path + "' have different amounts of values");
+            }
+        }
+
+        List<RawArgument> arguments = new ArrayList<>();
+
+        for (int i = 0; i < names.size(); i++) {
+            RawArgumentType type;
+
+            try {
+                type = RawArgumentType.valueOf(typeNames.get(i).toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.error("The argument type '{}' of the command file '{}' does not exist", typeNames.get(i), path);
+                throw new IllegalArgumentException("The argument type '" + typeNames.get(i) + "' of the command file '" + path + "' does not exist");
+            }
+
+            String[] allowed = values == null ? new String[0] : values.get(i).toArray(new String[0]);
+
+            if (type == RawArgumentType.ENUM && allowed.length == 0) {
+                logger.error("The ENUM argument '{}' of the command file '{}' has no values", names.get(i), path);
+                throw new IllegalArgumentException("The ENUM argument '" + names.get(i) + "' of the command file '" + path + "' has no values");
+            }
+
+            if (!required.get(i) && i + 1 < names.size() && required.get(i + 1)) {
+                logger.error("The optional argument '{}' of the command file '{}' is followed by a required one", names.get(i), path);
+                throw new IllegalArgumentException("The optional argument '" + names.get(i) + "' of the command file '" + path + "' is followed by a required one");
+            }
+
+            arguments.add(new RawArgument(type, names.get(i), required.get(i), allowed));
+        }
+
+        return new RawArgumentSchema(arguments);
+    }
+
+    private final RawArgument[] arguments;
+    private final Map<String, Integer> indexes;
+    private final int requiredCount;
+    private final String usage;
+
+    public RawArgumentSchema(List<RawArgument> arguments) {
+        this.arguments = arguments.toArray(new RawArgument[0]);
+        this.indexes = new HashMap<>();
+
+        int requiredCount = 0;
+        StringBuilder usage = new StringBuilder();
+
+        for (int i = 0; i < this.arguments.length; i++) {
+            RawArgument argument = this.arguments[i];
+            indexes.put(argument.name(), i);
+
+            if (argument.required()) {
+                requiredCount++;
+            }
+
+            if (i > 0) {
+                usage.append(' ');
+            }
+
+            usage.append(argument.required() ? '<' : '[').append(argument.name()).append(argument.required() ? '>' : ']');
+        }
+
+        this.requiredCount = requiredCount;
+        this.usage = usage.toString();
+    }
+
+    /**
+     * Parses the arguments given to the command.
+     *
+     * @param raw the arguments given by the user.
+     * @return the parsed arguments.
+     * @throws RawArgumentException if an argument is missing, malformed, or if there are too many arguments.
+     */
+    public RawArguments parse(String[] raw) {
+        if (raw.length < requiredCount) {
+            throw new RawArgumentException("Missing argument '" + arguments[raw.length].name() + "'");
+        }
+        if (raw.length > arguments.length) {
+            throw new RawArgumentException("Too many arguments : expected at most " + arguments.length);
+        }
+
+        Object[] values = new Object[arguments.length];
+
+        for (int i = 0; i < raw.length; i++) {
+            RawArgument argument = arguments[i];
+            Object value = argument.type().parse(raw[i], argument.values());
+
+            if (value == null) {
+                String expected = argument.type() == RawArgumentType.ENUM
+                        ? String.join(", ", argument.values())
+                        : argument.type().getDescription();
+
+                throw new RawArgumentException("Invalid value for argument '" + argument.name() + "' : expected " + expected);
+            }
+
+            values[i] = value;
+        }
+
+        return new RawArguments(raw, indexes, values);
+    }
+
+    /**
+     * @return the usage of the arguments, such as '&lt;member&gt; &lt;duration&gt; [reason]'.
+     */
+    public String getUsage() {
+        return usage;
+    }
+
+    public List<RawArgument> getArguments() {
+        return List.of(arguments);
+    }
+}
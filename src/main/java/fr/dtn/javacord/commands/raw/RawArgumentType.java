@@ -0,0 +1,184 @@
+package fr.dtn.javacord.commands.raw;
+
+import java.time.Duration;
+
+/**
+ * The types of the arguments of a raw command, with their parsers.
+ */
+public enum RawArgumentType {
+    /**
+     * Any text, parsed as a {@link String}.
+     */
+    STRING("a text") {
+        @Override
+        Object parse(String value, String[] values) {
+            return value;
+        }
+    },
+
+    /**
+     * An integer, parsed as a {@link Long}.
+     */
+    INTEGER("an integer") {
+        @Override
+        Object parse(String value, String[] values) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    },
+
+    /**
+     * A Discord id, parsed as a {@link Long}.
+     */
+    SNOWFLAKE("an id") {
+        @Override
+        Object parse(String value, String[] values) {
+            return parseSnowflake(value, 0, value.length());
+        }
+    },
+
+    /**
+     * A user mention ({@code <@id>} or {@code <@!id>}) or a user id, parsed as a {@link Long}.
+     */
+    USER("a user") {
+        @Override
+        Object parse(String value, String[] values) {
+            if (value.startsWith("<@!")) {
+                return parseMention(value, 3);
+            }
+
+            return value.startsWith("<@") ? parseMention(value, 2) : parseSnowflake(value, 0, value.length());
+        }
+    },
+
+    /**
+     * A channel mention ({@code <#id>}) or a channel id, parsed as a {@link Long}.
+     */
+    CHANNEL("a channel") {
+        @Override
+        Object parse(String value, String[] values) {
+            return value.startsWith("<#") ? parseMention(value, 2) : parseSnowflake(value, 0, value.length());
+        }
+    },
+
+    /**
+     * A role mention ({@code <@&id>}) or a role id, parsed as a {@link Long}.
+     */
+    ROLE("a role") {
+        @Override
+        Object parse(String value, String[] values) {
+            return value.startsWith("<@&") ? parseMention(value, 3) : parseSnowflake(value, 0, value.length());
+        }
+    },
+
+    /**
+     * A duration made of numbers followed by units (w, d, h, m, s), such as '1h30m', parsed as a {@link Duration}.
+     */
+    DURATION("a duration (e.g. 1h30m)") {
+        @Override
+        Object parse(String value, String[] values) {
+            long seconds = 0;
+            long amount = -1;
+
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+
+                if (c >= '0' && c <= '9') {
+                    amount = (amount == -1 ? 0 : amount * 10) + (c - '0');
+
+                    if (amount > Integer.MAX_VALUE) {
+                        return null;
+                    }
+
+                    continue;
+                }
+
+                if (amount == -1) {
+                    return null;
+                }
+
+                switch (Character.toLowerCase(c)) {
+                    case 'w' -> seconds += amount * 604800;
+                    case 'd' -> seconds += amount * 86400;
+                    case 'h' -> seconds += amount * 3600;
+                    case 'm' -> seconds += amount * 60;
+                    case 's' -> seconds += amount;
+                    default -> {
+                        return null;
+                    }
+                }
+
+                amount = -1;
+            }
+
+            // A trailing number without unit is a number of seconds
+            if (amount != -1) {
+                seconds += amount;
+            }
+
+            return value.isEmpty() ? null : Duration.ofSeconds(seconds);
+        }
+    },
+
+    /**
+     * One of the values listed in the command configuration, ignoring case. Parsed as the listed {@link String}.
+     */
+    ENUM("one of the allowed values") {
+        @Override
+        Object parse(String value, String[] values) {
+            for (String allowed : values) {
+                if (allowed.equalsIgnoreCase(value)) {
+                    return allowed;
+                }
+            }
+
+            return null;
+        }
+    };
+
+    private static Long parseMention(String value, int start) {
+        if (!value.endsWith(">")) {
+            return null;
+        }
+
+        return parseSnowflake(value, start, value.length() - 1);
+    }
+
+    private static Long parseSnowflake(String value, int start, int end) {
+        if (start >= end || end - start > 20) {
+            return null;
+        }
+
+        try {
+            long id = Long.parseLong(value, start, end, 10);
+            return id > 0 ? id : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private final String description;
+
+    RawArgumentType(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Parses a value.
+     *
+     * @param value  the raw value given by the user.
+     * @param values the allowed values, for {@link #ENUM}.
+     * @return the parsed value, or null if the value is malformed.
+     */
+    abstract Object parse(String value, String[] values);
+
+    /**
+     * @return a description of the expected values, shown to users who give a malformed value.
+     */
+    public String getDescription() {
+        return description;
+    }
+}
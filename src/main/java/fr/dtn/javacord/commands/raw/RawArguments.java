@@ -0,0 +1,75 @@
+package fr.dtn.javacord.commands.raw;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The arguments given to a raw command, parsed according to the argument schema of the command.
+ */
+public class RawArguments {
+    private final String[] raw;
+    private final Map<String, Integer> indexes;
+    private final Object[] values;
+
+    RawArguments(String[] raw, Map<String, Integer> indexes, Object[] values) {
+        this.raw = raw;
+        this.indexes = indexes;
+        this.values = values;
+    }
+
+    private Object get(String name) {
+        Integer index = indexes.get(name);
+
+        if (index == null) {
+            throw new NoSuchElementException("The command has no argument named '" + name + "'");
+        }
+
+        return values[index];
+    }
+
+    /**
+     * @param name the name of the argument.
+     * @return true if the argument was given, false if it is optional and was omitted.
+     */
+    public boolean has(String name) {
+        return get(name) != null;
+    }
+
+    public String getString(String name) {
+        return (String) get(name);
+    }
+
+    /**
+     * Returns the value of an INTEGER, SNOWFLAKE, USER, CHANNEL or ROLE argument.
+     */
+    public long getLong(String name) {
+        Object value = get(name);
+
+        if (value == null) {
+            throw new NoSuchElementException("The argument '" + name + "' was not given");
+        }
+
+        return (Long) value;
+    }
+
+    public long getLong(String name, long defaultValue) {
+        Object value = get(name);
+        return value == null ? defaultValue : (Long) value;
+    }
+
+    public int getInt(String name) {
+        return Math.toIntExact(getLong(name));
+    }
+
+    public Duration getDuration(String name) {
+        return (Duration) get(name);
+    }
+
+    /**
+     * @return the arguments as they were given by the user.
+     */
+    public String[] getRaw() {
+        return raw;
+    }
+}
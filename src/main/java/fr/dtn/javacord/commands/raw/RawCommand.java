@@ -2,6 +2,8 @@ package fr.dtn.javacord.commands.raw;
 
 import com.moandjiezana.toml.Toml;
 import fr.dtn.javacord.Bot;
+import fr.dtn.javacord.ratelimit.RateLimit;
+import fr.dtn.javacord.ratelimit.RateLimiter;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Member;
@@ -20,8 +22,20 @@ public class RawCommand {
     private final String[] calls;
     private final Permission[] permissions;
     private final RawCommandExecutor executor;
+    private final RawArgumentSchema arguments;
+    private final RateLimiter rateLimiter;
 
     public RawCommand(File file) {
+        this(file, null);
+    }
+
+    /**
+     * Loads a command from its configuration file.
+     *
+     * @param file         the configuration file.
+     * @param defaultLimit the rate limit used when the command does not define its own 'cooldown', may be null.
+     */
+    public RawCommand(File file, RateLimit defaultLimit) {
         String path = file.getPath();
         logger.info("Loading command from file {}", path);
 
@@ -39,10 +53,34 @@ public class RawCommand {
         this.calls = command.getList("calls").stream().map(String::valueOf).toArray(String[]::new);
         this.permissions = command.getList("permissions").stream().map(String::valueOf).map(Permission::valueOf).toArray(Permission[]::new);
         this.executor = RawCommandExecutor.fromClassName(command.getString("executor"));
+        this.arguments = RawArgumentSchema.fromToml(command, path);
+
+        if (arguments == null && executor instanceof RawCommandExecutor.Typed) {
+            logger.warn("The executor of the command file '{}' reads typed arguments, but the command has no '[arguments]' section", path);
+        }
+
+        RateLimit limit = RateLimit.fromToml(command, defaultLimit);
+        this.rateLimiter = limit == null ? null : new RateLimiter(limit);
     }
 
+    /**
+     * Runs the command. When the command has an argument schema, the arguments are parsed first.
+     *
+     * @throws RawArgumentException if the arguments do not match the argument schema of the command.
+     */
     public void execute(Bot bot, Guild guild, TextChannel channel, Message message, User author, Member member, String[] args) {
-        executor.execute(bot, guild, channel, message, author, member, args);
+        if (arguments == null) {
+            executor.execute(bot, guild, channel, message, author, member, args);
+            return;
+        }
+
+        RawArguments parsed = arguments.parse(args);
+
+        if (executor instanceof RawCommandExecutor.Typed typed) {
+            typed.execute(bot, guild, channel, message, author, member, parsed);
+        } else {
+            executor.execute(bot, guild, channel, message, author, member, args);
+        }
     }
 
     public String getDisplayName() {
@@ -64,4 +102,18 @@ public class RawCommand {
     public RawCommandExecutor getExecutor() {
         return executor;
     }
+
+    /**
+     * @return the rate limiter of the command, or null if the command is not rate limited.
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return the argument schema of the command, or null if its arguments are not typed.
+     */
+    public RawArgumentSchema getArguments() {
+        return arguments;
+    }
 }
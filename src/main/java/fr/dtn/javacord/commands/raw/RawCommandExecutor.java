@@ -10,12 +10,33 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
 
 public interface RawCommandExecutor {
     Logger logger = LogManager.getLogger();
 
     void execute(Bot bot, Guild guild, TextChannel channel, Message message, User author, Member member, String[] args);
 
+    /**
+     * An executor receiving the arguments parsed according to the argument schema of its command.
+     */
+    @FunctionalInterface
+    interface Typed extends RawCommandExecutor {
+        /**
+         * Called once the arguments are parsed.
+         */
+        void execute(Bot bot, Guild guild, TextChannel channel, Message message, User author, Member member, RawArguments args);
+
+        /**
+         * Called when the command has no argument schema : only the arguments as they were given are available,
+         * with {@link RawArguments#getRaw()}.
+         */
+        @Override
+        default void execute(Bot bot, Guild guild, TextChannel channel, Message message, User author, Member member, String[] args) {
+            execute(bot, guild, channel, message, author, member, new RawArguments(args, Map.of(), new Object[0]));
+        }
+    }
+
     static RawCommandExecutor fromClassName(String className) {
         try {
             return (RawCommandExecutor) Class.forName(className).getConstructor().newInstance();
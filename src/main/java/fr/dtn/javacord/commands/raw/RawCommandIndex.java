@@ -0,0 +1,211 @@
+package fr.dtn.javacord.commands.raw;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable hash index from calls to {@link RawCommand} instances.
+ * <p>
+ * Lookups can be made on a region of a larger text, so that the name of a command can be resolved
+ * directly from the content of a message, without creating any object.
+ * The index can optionally ignore the case of the calls, and resolve any unique prefix of a call
+ * (e.g. 'he' for 'help' when no other call starts with 'he').
+ */
+public final class RawCommandIndex {
+    public static final RawCommandIndex EMPTY = new Builder(false, false).build();
+
+    private final boolean ignoreCase;
+    private final String[] keys;
+    private final int[] hashes;
+    private final RawCommand[] commands;
+    private final int size;
+
+    private RawCommandIndex(boolean ignoreCase, Map<String, RawCommand> entries) {
+        int capacity = Integer.highestOneBit(Math.max(2, entries.size() * 2 - 1)) << 1;
+
+        this.ignoreCase = ignoreCase;
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.commands = new RawCommand[capacity];
+        this.size = entries.size();
+
+        int mask = capacity - 1;
+
+        for (Map.Entry<String, RawCommand> entry : entries.entrySet()) {
+            String key = entry.getKey();
+            int hash = hash(key, 0, key.length());
+            int slot = spread(hash) & mask;
+
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = key;
+            hashes[slot] = hash;
+            commands[slot] = entry.getValue();
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private char fold(char c) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    private int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + fold(text.charAt(i));
+        }
+
+        return hash;
+    }
+
+    /**
+     * Finds the command whose call is the given region of a text.
+     *
+     * @param text  the text containing the call.
+     * @param start the index of the first character of the call.
+     * @param end   the index following the last character of the call.
+     * @return the command, or null if there is none.
+     */
+    public RawCommand get(CharSequence text, int start, int end) {
+        if (start >= end) {
+            return null;
+        }
+
+        int hash = hash(text, start, end);
+        int mask = keys.length - 1;
+
+        for (int slot = spread(hash) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && regionMatches(keys[slot], text, start, end)) {
+                return commands[slot];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the command of the given call.
+     *
+     * @param call the call.
+     * @return the command, or null if there is none.
+     */
+    public RawCommand get(String call) {
+        return get(call, 0, call.length());
+    }
+
+    private boolean regionMatches(String key, CharSequence text, int start, int end) {
+        if (key.length() != end - start) {
+            return false;
+        }
+
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != fold(text.charAt(start + i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the number of entries of the index, including the resolved prefixes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Collects the commands of an index, rejecting calls that are already used.
+     */
+    public static final class Builder {
+        private final boolean ignoreCase;
+        private final boolean abbreviations;
+        private final Map<String, RawCommand> calls;
+
+        /**
+         * @param ignoreCase    whether the calls are case-insensitive.
+         * @param abbreviations whether unique prefixes of the calls are resolved as well.
+         */
+        public Builder(boolean ignoreCase, boolean abbreviations) {
+            this.ignoreCase = ignoreCase;
+            this.abbreviations = abbreviations;
+            this.calls = new LinkedHashMap<>();
+        }
+
+        private String fold(String call) {
+            if (!ignoreCase) {
+                return call;
+            }
+
+            char[] chars = call.toCharArray();
+
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = Character.toLowerCase(chars[i]);
+            }
+
+            return new String(chars);
+        }
+
+        /**
+         * Adds every call of a command.
+         *
+         * @param command the command.
+         * @return the first call of the command that is already used, or null if the command was added.
+         */
+        public String add(RawCommand command) {
+            for (String call : command.getCalls()) {
+                RawCommand existing = calls.get(fold(call));
+
+                if (existing != null && existing != command) {
+                    return call;
+                }
+            }
+
+            for (String call : command.getCalls()) {
+                calls.put(fold(call), command);
+            }
+
+            return null;
+        }
+
+        public RawCommandIndex build() {
+            if (!abbreviations) {
+                return new RawCommandIndex(ignoreCase, calls);
+            }
+
+            // Every prefix is mapped to its command, or to null when several commands share it
+            Map<String, RawCommand> prefixes = new HashMap<>();
+
+            for (Map.Entry<String, RawCommand> entry : calls.entrySet()) {
+                String call = entry.getKey();
+
+                for (int length = 1; length < call.length(); length++) {
+                    String prefix = call.substring(0, length);
+
+                    if (!prefixes.containsKey(prefix)) {
+                        prefixes.put(prefix, entry.getValue());
+                    } else if (prefixes.get(prefix) != entry.getValue()) {
+                        prefixes.put(prefix, null);
+                    }
+                }
+            }
+
+            Map<String, RawCommand> entries = new HashMap<>(calls);
+
+            prefixes.forEach((prefix, command) -> {
+                if (command != null) {
+                    entries.putIfAbsent(prefix, command);
+                }
+            });
+
+            return new RawCommandIndex(ignoreCase, entries);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package fr.dtn.javacord.commands.raw;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the content of a message into the name and the arguments of a raw command.
+ * <p>
+ * Arguments are separated by whitespaces. Double quotes group several words into a single argument
+ * (e.g. {@code !say "hello world"}), and a backslash escapes the character that follows it
+ * (e.g. {@code \"} or {@code \\}).
+ */
+public final class RawCommandTokenizer {
+    private static final String[] NO_ARGUMENTS = new String[0];
+
+    private RawCommandTokenizer() {
+    }
+
+    /**
+     * Finds the end of the word starting at the given index.
+     *
+     * @param text  the text.
+     * @param start the index of the first character of the word.
+     * @return the index of the first whitespace following the word, or the length of the text.
+     */
+    public static int findWordEnd(String text, int start) {
+        int length = text.length();
+        int end = start;
+
+        while (end < length && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+
+        return end;
+    }
+
+    /**
+     * Splits the arguments of a command.
+     *
+     * @param text  the content of the message.
+     * @param start the index following the name of the command.
+     * @return the arguments, unquoted and unescaped.
+     */
+    public static String[] tokenize(String text, int start) {
+        int length = text.length();
+        int index = start;
+
+        List<String> arguments = null;
+        StringBuilder builder = null;
+
+        while (true) {
+            while (index < length && Character.isWhitespace(text.charAt(index))) {
+                index++;
+            }
+
+            if (index >= length) {
+                break;
+            }
+
+            int argumentStart = index;
+            boolean plain = true;
+            boolean quoted = false;
+
+            for (; index < length; index++) {
+                char c = text.charAt(index);
+
+                if (c != '"' && c != '\\' && (quoted || !Character.isWhitespace(c))) {
+                    if (!plain) {
+                        builder.append(c);
+                    }
+
+                    continue;
+                }
+
+                if (!quoted && Character.isWhitespace(c)) {
+                    break;
+                }
+
+                // First quote or escape of the argument : from now on, its characters are copied one by one
+                if (plain) {
+                    plain = false;
+
+                    if (builder == null) {
+                        builder = new StringBuilder();
+                    }
+
+                    builder.setLength(0);
+                    builder.append(text, argumentStart, index);
+                }
+
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (index + 1 < length) {
+                    builder.append(text.charAt(++index));
+                }
+            }
+
+            if (arguments == null) {
+                arguments = new ArrayList<>();
+            }
+
+            arguments.add(plain ? text.substring(argumentStart, index) : builder.toString());
+        }
+
+        return arguments == null ? NO_ARGUMENTS : arguments.toArray(NO_ARGUMENTS);
+    }
+}
@@ -2,5 +2,12 @@ package fr.dtn.javacord.commands.slash;
 
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 
-public record Parameter(OptionType type, String name, String description, boolean required, boolean autoComplete, String[] choices) {
-}
\ No newline at end of file
+/**
+ * @param provider the autocompletion provider of the parameter ('database:&lt;entity class&gt;#&lt;field&gt;' or the name of an
+ *                 {@link fr.dtn.javacord.commands.slash.autocomplete.AutoCompleteProvider} class), or null to complete from the choices.
+ */
+public record Parameter(OptionType type, String name, String description, boolean required, boolean autoComplete, String[] choices, String provider) {
+    public Parameter(OptionType type, String name, String description, boolean required, boolean autoComplete, String[] choices) {
+        this(type, name, description, required, autoComplete, choices, null);
+    }
+}
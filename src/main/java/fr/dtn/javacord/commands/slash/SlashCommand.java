@@ -2,9 +2,17 @@ package fr.dtn.javacord.commands.slash;
 
 import com.moandjiezana.toml.Toml;
 import fr.dtn.javacord.Bot;
+import fr.dtn.javacord.interaction.InteractionContext;
+import fr.dtn.javacord.ratelimit.RateLimit;
+import fr.dtn.javacord.ratelimit.RateLimiter;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -17,12 +25,29 @@ import java.util.List;
 public class SlashCommand {
     private static final Logger logger = LogManager.getLogger();
 
-    private final String displayName, description;
+    private final String displayName, description, path;
     private Permission[] permissions;
     private SlashCommandExecutor executor;
     private List<Parameter> parameters;
+    private final RateLimiter rateLimiter;
 
     public SlashCommand(File file){
+        this(file, null);
+    }
+
+    public SlashCommand(File file, RateLimit defaultLimit){
+        this(file, defaultLimit, null, new Permission[0]);
+    }
+
+    /**
+     * Loads a slash command, or a subcommand, from its configuration file.
+     *
+     * @param file              the configuration file.
+     * @param defaultLimit      the rate limit used when the command does not define its own 'cooldown', may be null.
+     * @param parentPath        the path of the command containing this subcommand (e.g. 'admin' or 'admin/user'), or null.
+     * @param parentPermissions the permissions required by the parent command, also required by this command.
+     */
+    public SlashCommand(File file, RateLimit defaultLimit, String parentPath, Permission[] parentPermissions){
         logger.info("Loading slash command from file '" + file.getPath() + "'");
         Toml toml = new Toml().read(file);
 
@@ -33,6 +58,10 @@ public class SlashCommand {
         }
 
         this.description = toml.getString("description");
+        this.path = parentPath == null ? displayName : parentPath + "/" + displayName;
+
+        RateLimit limit = RateLimit.fromToml(toml, defaultLimit);
+        this.rateLimiter = limit == null ? null : new RateLimiter(limit);
 
         List<Object> perms = toml.getList("permissions");
 
@@ -53,6 +82,11 @@ public class SlashCommand {
             }
         }
 
+        if (parentPermissions.length > 0) {
+            Permission[] inherited = Arrays.copyOf(parentPermissions, parentPermissions.length + permissions.length);
+            System.arraycopy(permissions, 0, inherited, parentPermissions.length, permissions.length);
+            this.permissions = inherited;
+        }
 
         String className = toml.getString("executor");
         try {
@@ -72,13 +106,20 @@ public class SlashCommand {
         }
 
         logger.info("Loading slash command options");
+        this.parameters = new ArrayList<>();
+
+        if (!toml.contains("parameters")) {
+            logger.info("Slash command '" + displayName + "' loaded successfully");
+            return;
+        }
+
         List<String> names = toml.getList("parameters.name");
         List<String> descriptions = toml.getList("parameters.description");
         List<Boolean> required = toml.getList("parameters.required");
         List<Boolean> autoCompletes = toml.getList("parameters.autoComplete");
         List<List<String>> choice = toml.getList("parameters.choice");
         List<String> typesNames = toml.getList("parameters.type");
-
+        List<String> providers = toml.getList("parameters.provider");
 
         for(List<?> list : Arrays.asList(descriptions, required, autoCompletes, choice, typesNames)){
             if(list.size() != names.size()){
@@ -87,6 +128,11 @@ public class SlashCommand {
             }
         }
 
+        if(providers != null && providers.size() != names.size()){
+            logger.error("Loading slash command '" + displayName + "' failed : Different options amount");
+            return;
+        }
+
         List<OptionType> types = new ArrayList<>();
         typesNames.forEach(type -> {
             try{
@@ -96,9 +142,8 @@ public class SlashCommand {
             }
         });
 
-        this.parameters = new ArrayList<>();
         for(int i = 0; i < names.size(); i++)
-            this.parameters.add(new Parameter(types.get(i), names.get(i), descriptions.get(i), required.get(i), autoCompletes.get(i), choice.get(i).toArray(new String[0])));
+            this.parameters.add(new Parameter(types.get(i), names.get(i), descriptions.get(i), required.get(i), autoCompletes.get(i), choice.get(i).toArray(new String[0]), providers == null || providers.get(i).isEmpty() ? null : providers.get(i)));
 
         logger.info("Slash command '" + displayName + "' loaded successfully");
     }
@@ -107,11 +152,66 @@ public class SlashCommand {
         executor.execute(bot, event);
     }
 
+    public void execute(Bot bot, SlashCommandInteractionEvent event, InteractionContext context) {
+        if (executor instanceof SlashCommandExecutor.WithContext contextual) {
+            contextual.execute(bot, event, context);
+        } else {
+            executor.execute(bot, event);
+        }
+    }
+
+    /**
+     * @return the options of the command, built from its parameters.
+     */
+    public List<OptionData> getOptions() {
+        List<OptionData> options = new ArrayList<>();
+
+        for(Parameter parameter : parameters) {
+            OptionData option = new OptionData(parameter.type(), parameter.name(), parameter.description());
+
+            // Discord does not allow static choices on autocompleted options : the choices are then suggested while typing
+            if(parameter.autoComplete() && parameter.type().canSupportChoices()) {
+                options.add(option.setAutoComplete(true));
+                continue;
+            }
+
+            for(String choice : parameter.choices()) {
+                option.addChoices(new Command.Choice(choice, choice));
+            }
+
+            options.add(option);
+        }
+
+        return options;
+    }
+
+    public SlashCommandData toCommandData() {
+        return Commands.slash(displayName, description).addOptions(getOptions());
+    }
+
+    public SubcommandData toSubcommandData() {
+        return new SubcommandData(displayName, description).addOptions(getOptions());
+    }
+
     public String getDisplayName() { return displayName; }
 
+    /**
+     * @return the full path of the command, such as 'ping', 'admin/ban' or 'admin/user/ban'.
+     */
+    public String getPath() { return path; }
+
+    public SlashCommandExecutor getExecutor() { return executor; }
+
+    /**
+     * @return true if the executor receives the interaction context, so that the interaction can be deferred automatically.
+     */
+    public boolean usesContext() { return executor instanceof SlashCommandExecutor.WithContext; }
+
     public String getDescription() { return description; }
 
     public Permission[] getPermissions() { return permissions; }
 
     public List<Parameter> getParameters(){ return parameters; }
+
+    public RateLimiter getRateLimiter() { return rateLimiter; }
 }
\ No newline at end of file
@@ -1,8 +1,35 @@
 package fr.dtn.javacord.commands.slash;
 
 import fr.dtn.javacord.Bot;
+import fr.dtn.javacord.interaction.InteractionContext;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 
 public interface SlashCommandExecutor {
     void execute(Bot bot, SlashCommandInteractionEvent event);
-}
\ No newline at end of file
+
+    /**
+     * An executor receiving the context tracking the acknowledgement of the interaction : only those are deferred automatically.
+     */
+    @FunctionalInterface
+    interface WithContext extends SlashCommandExecutor {
+        /**
+         * Called when the command is used, with the context tracking the acknowledgement of the interaction.
+         */
+        void execute(Bot bot, SlashCommandInteractionEvent event, InteractionContext context);
+
+        /**
+         * Runs the executor outside of the event handler of the bot, with a new interaction context.
+         */
+        @Override
+        default void execute(Bot bot, SlashCommandInteractionEvent event) {
+            String name = "slash/" + event.getFullCommandName().replace(' ', '/');
+            InteractionContext context = bot.createInteractionContext(event, InteractionContext.getReceivedAt(event), name);
+
+            try {
+                execute(bot, event, context);
+            } finally {
+                context.executed();
+            }
+        }
+    }
+}
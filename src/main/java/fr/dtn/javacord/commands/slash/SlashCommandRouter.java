@@ -0,0 +1,242 @@
+package fr.dtn.javacord.commands.slash;
+
+import com.moandjiezana.toml.Toml;
+import fr.dtn.javacord.ratelimit.RateLimit;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandGroupData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes slash command interactions to their {@link SlashCommand}, using a hash map keyed on the full path of the commands
+ * ('name', 'name/subcommand' or 'name/group/subcommand').
+ * <p>
+ * The commands are loaded from the 'commands/slash' directory of the bot :
+ * <ul>
+ *     <li>every '.toml' file is a command</li>
+ *     <li>a directory containing a '.toml' file with the same name (e.g. 'admin/admin.toml') is a command with subcommands :
+ *     the file with the same name describes the command, and the other files of the directory are its subcommands</li>
+ *     <li>in such a command, a subdirectory containing a '.toml' file with the same name is a subcommand group,
+ *     described by this file, and whose other files are its subcommands</li>
+ *     <li>any other directory is only used to organize the files, and is loaded as if its files were in its parent directory</li>
+ * </ul>
+ */
+public class SlashCommandRouter {
+    private static final Logger logger = LogManager.getLogger();
+
+    public static final SlashCommandRouter EMPTY = new SlashCommandRouter(Map.of(), List.of());
+
+    private final Map<String, SlashCommand> commands;
+    private final List<SlashCommandData> data;
+
+    private SlashCommandRouter(Map<String, SlashCommand> commands, List<SlashCommandData> data) {
+        this.commands = commands;
+        this.data = data;
+    }
+
+    /**
+     * Finds the command of an interaction.
+     *
+     * @param name       the name of the command.
+     * @param group      the name of the subcommand group, may be null.
+     * @param subcommand the name of the subcommand, may be null.
+     * @return the command, or null if there is none.
+     */
+    public SlashCommand route(String name, String group, String subcommand) {
+        if (subcommand == null) {
+            return commands.get(name);
+        }
+
+        return commands.get(group == null ? name + "/" + subcommand : name + "/" + group + "/" + subcommand);
+    }
+
+    /**
+     * @param path the full path of a command, such as 'ping', 'admin/ban' or 'admin/user/ban'.
+     * @return the command, or null if there is none.
+     */
+    public SlashCommand get(String path) {
+        return commands.get(path);
+    }
+
+    /**
+     * @return every executable command, including subcommands.
+     */
+    public Collection<SlashCommand> getCommands() {
+        return commands.values();
+    }
+
+    /**
+     * @return the top-level commands to send to Discord.
+     */
+    public List<SlashCommandData> getCommandData() {
+        return data;
+    }
+
+    /**
+     * Loads the commands of a directory and builds a router.
+     */
+    public static class Builder {
+        private final RateLimit defaultLimit;
+        private final Map<String, SlashCommand> commands;
+        private final List<SlashCommandData> data;
+
+        /**
+         * @param defaultLimit the rate limit of the commands that do not define their own 'cooldown', may be null.
+         */
+        public Builder(RateLimit defaultLimit) {
+            this.defaultLimit = defaultLimit;
+            this.commands = new HashMap<>();
+            this.data = new ArrayList<>();
+        }
+
+        private static File[] listFiles(File directory) {
+            File[] files = directory.listFiles();
+            return files == null ? new File[0] : files;
+        }
+
+        private static File getDescriptor(File directory) {
+            File descriptor = new File(directory, directory.getName() + ".toml");
+            return descriptor.isFile() ? descriptor : null;
+        }
+
+        private static Permission[] readPermissions(Toml toml, File file) {
+            List<Object> names = toml.getList("permissions", List.of());
+            List<Permission> permissions = new ArrayList<>(names.size());
+
+            for (Object name : names) {
+                String permission = name.toString().toUpperCase();
+
+                try {
+                    permissions.add(Permission.valueOf(permission));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Loading '{}' : Failed to load permission '{}' : Permission does not exist", file.getPath(), permission);
+                }
+            }
+
+            return permissions.toArray(new Permission[0]);
+        }
+
+        private static String readName(Toml toml, File file) {
+            return toml.getString("name", file.getName().replace(".toml", ""));
+        }
+
+        /**
+         * Loads every command of a directory, recursively.
+         *
+         * @param directory the directory.
+         * @return this builder.
+         */
+        public Builder load(File directory) {
+            if (!directory.exists() || directory.isFile()) {
+                return this;
+            }
+
+            for (File file : listFiles(directory)) {
+                if (!file.isDirectory()) {
+                    SlashCommand command = new SlashCommand(file, defaultLimit);
+
+                    if (add(command)) {
+                        data.add(command.toCommandData());
+                    }
+                } else if (getDescriptor(file) != null) {
+                    loadParent(file, getDescriptor(file));
+                } else {
+                    load(file);
+                }
+            }
+
+            return this;
+        }
+
+        private void loadParent(File directory, File descriptor) {
+            logger.info("Loading slash command with subcommands from directory '{}'", directory.getPath());
+
+            Toml toml = new Toml().read(descriptor);
+            String name = readName(toml, descriptor);
+            Permission[] permissions = readPermissions(toml, descriptor);
+            RateLimit limit = RateLimit.fromToml(toml, defaultLimit);
+
+            SlashCommandData parent = Commands.slash(name, toml.getString("description"));
+
+            for (File file : listFiles(directory)) {
+                if (file.equals(descriptor)) {
+                    continue;
+                }
+
+                if (!file.isDirectory()) {
+                    SlashCommand command = new SlashCommand(file, limit, name, permissions);
+
+                    if (add(command)) {
+                        parent.addSubcommands(command.toSubcommandData());
+                    }
+                } else if (getDescriptor(file) != null) {
+                    parent.addSubcommandGroups(loadGroup(file, getDescriptor(file), name, permissions, limit));
+                } else {
+                    logger.warn("The directory '{}' is neither a subcommand group nor a command : ignoring it", file.getPath());
+                }
+            }
+
+            data.add(parent);
+        }
+
+        private SubcommandGroupData loadGroup(File directory, File descriptor, String parentName, Permission[] parentPermissions, RateLimit parentLimit) {
+            Toml toml = new Toml().read(descriptor);
+            String name = readName(toml, descriptor);
+            String path = parentName + "/" + name;
+
+            Permission[] groupPermissions = readPermissions(toml, descriptor);
+            Permission[] permissions = new Permission[parentPermissions.length + groupPermissions.length];
+            System.arraycopy(parentPermissions, 0, permissions, 0, parentPermissions.length);
+            System.arraycopy(groupPermissions, 0, permissions, parentPermissions.length, groupPermissions.length);
+
+            RateLimit limit = RateLimit.fromToml(toml, parentLimit);
+            SubcommandGroupData group = new SubcommandGroupData(name, toml.getString("description"));
+
+            for (File file : listFiles(directory)) {
+                if (file.equals(descriptor)) {
+                    continue;
+                }
+
+                if (file.isDirectory()) {
+                    logger.warn("Subcommand groups cannot be nested : ignoring directory '{}'", file.getPath());
+                    continue;
+                }
+
+                SlashCommand command = new SlashCommand(file, limit, path, permissions);
+
+                if (add(command)) {
+                    group.addSubcommands(command.toSubcommandData());
+                }
+            }
+
+            return group;
+        }
+
+        private boolean add(SlashCommand command) {
+            if (command.getExecutor() == null) {
+                logger.warn("The slash command '{}' has no executor : ignoring it", command.getPath());
+                return false;
+            }
+
+            if (commands.putIfAbsent(command.getPath(), command) != null) {
+                logger.error("The slash command '{}' is defined more than once", command.getPath());
+                throw new IllegalArgumentException("The slash command '" + command.getPath() + "' is defined more than once");
+            }
+
+            return true;
+        }
+
+        public SlashCommandRouter build() {
+            return new SlashCommandRouter(Map.copyOf(commands), List.copyOf(data));
+        }
+    }
+}
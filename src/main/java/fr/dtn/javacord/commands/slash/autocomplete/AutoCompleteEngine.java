@@ -0,0 +1,195 @@
+package fr.dtn.javacord.commands.slash.autocomplete;
+
+import com.moandjiezana.toml.Toml;
+import fr.dtn.javacord.Bot;
+import fr.dtn.javacord.commands.slash.Parameter;
+import fr.dtn.javacord.commands.slash.SlashCommand;
+import fr.dtn.javacord.commands.slash.SlashCommandRouter;
+import fr.dtn.javacord.database.HibernateEntity;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.interactions.AutoCompleteQuery;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers the autocompletion requests of slash command parameters.
+ * <p>
+ * The provider of every parameter is created once, when the commands are registered.
+ * Providers that only read memory answer directly, the others run on a small pool of threads
+ * and are given up on (with an empty list of choices) once the autocompletion deadline is over.
+ */
+public class AutoCompleteEngine {
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String DATABASE_PROVIDER_PREFIX = "database:";
+
+    private static Duration readSeconds(Map<String, Object> values, String key, Duration defaultValue) {
+        return values.get(key) instanceof Number seconds ? Duration.ofMillis(Math.round(seconds.doubleValue() * 1000)) : defaultValue;
+    }
+
+    private final Bot bot;
+    private final long deadline;
+    private final Duration cacheTtl;
+    private final int cacheSize;
+    private final ExecutorService executor;
+
+    private volatile SlashCommandRouter router;
+    private volatile Map<SlashCommand, Map<String, AutoCompleteProvider>> providers;
+
+    /**
+     * @param bot    the bot.
+     * @param config the '[autocomplete]' table of the configuration, may be null.
+     */
+    public AutoCompleteEngine(Bot bot, Toml config) {
+        Map<String, Object> values = config == null ? Map.of() : config.toMap();
+
+        this.bot = bot;
+        this.deadline = readSeconds(values, "deadline", Duration.ofSeconds(2)).toMillis();
+        this.cacheTtl = readSeconds(values, "cacheTtl", Duration.ofMinutes(1));
+        this.cacheSize = values.get("cacheSize") instanceof Number size ? size.intValue() : 1000;
+
+        int threads = values.get("threads") instanceof Number number ? number.intValue() : 4;
+        AtomicInteger counter = new AtomicInteger();
+
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "javacord-autocomplete-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.router = SlashCommandRouter.EMPTY;
+        this.providers = Map.of();
+    }
+
+    /**
+     * Creates the providers of every parameter with autocompletion enabled.
+     *
+     * @param router the slash commands of the bot.
+     */
+    public void register(SlashCommandRouter router) {
+        Map<SlashCommand, Map<String, AutoCompleteProvider>> created = new HashMap<>();
+
+        for (SlashCommand command : router.getCommands()) {
+            Map<String, AutoCompleteProvider> options = new HashMap<>();
+
+            for (Parameter parameter : command.getParameters()) {
+                if (parameter.autoComplete()) {
+                    options.put(parameter.name(), createProvider(command, parameter));
+                }
+            }
+
+            if (!options.isEmpty()) {
+                created.put(command, Map.copyOf(options));
+            }
+        }
+
+        this.providers = created;
+        this.router = router;
+    }
+
+    private AutoCompleteProvider createProvider(SlashCommand command, Parameter parameter) {
+        String provider = parameter.provider();
+
+        if (provider == null || provider.isEmpty()) {
+            return new ChoicesAutoCompleteProvider(parameter.choices(), parameter.type());
+        }
+
+        String description = "the autocompletion provider '" + provider + "' of the parameter '" + parameter.name() + "' of slash command '" + command.getPath() + "'";
+
+        try {
+            if (provider.startsWith(DATABASE_PROVIDER_PREFIX)) {
+                String[] source = provider.substring(DATABASE_PROVIDER_PREFIX.length()).split("#", 2);
+
+                if (source.length != 2) {
+                    throw new IllegalArgumentException("Expected 'database:<entity class>#<field>'");
+                }
+
+                Class<? extends HibernateEntity> entityClass = Class.forName(source[0]).asSubclass(HibernateEntity.class);
+                return new DatabaseAutoCompleteProvider(entityClass, source[1], parameter.type(), cacheTtl, executor);
+            }
+
+            AutoCompleteProvider custom = (AutoCompleteProvider) Class.forName(provider).getConstructor().newInstance();
+            return custom.isCacheable() ? new CachedAutoCompleteProvider(custom, cacheTtl, cacheSize) : custom;
+        } catch (ReflectiveOperationException | ClassCastException | IllegalArgumentException e) {
+            logger.error("Unable to load {}", description);
+            throw new IllegalArgumentException("Unable to load " + description, e);
+        }
+    }
+
+    /**
+     * Answers an autocompletion request.
+     *
+     * @param event the autocompletion event.
+     */
+    public void handle(CommandAutoCompleteInteractionEvent event) {
+        AutoCompleteQuery focused = event.getFocusedOption();
+        SlashCommand command = router.route(event.getName(), event.getSubcommandGroup(), event.getSubcommandName());
+        Map<String, AutoCompleteProvider> options = command == null ? null : providers.get(command);
+        AutoCompleteProvider provider = options == null ? null : options.get(focused.getName());
+
+        if (provider == null) {
+            event.replyChoices(List.of()).queue();
+            return;
+        }
+
+        String input = focused.getValue();
+
+        if (provider instanceof CachedAutoCompleteProvider cached) {
+            List<Command.Choice> choices = cached.getCached(input);
+
+            if (choices != null) {
+                reply(event, choices);
+                return;
+            }
+        }
+
+        if (!provider.isBlocking()) {
+            reply(event, provider.complete(bot, event, input));
+            return;
+        }
+
+        CompletableFuture.supplyAsync(() -> provider.complete(bot, event, input), executor)
+                .completeOnTimeout(List.of(), deadline, TimeUnit.MILLISECONDS)
+                .exceptionally(error -> {
+                    logger.warn("An error occurred while autocompleting the parameter '{}' of slash command '{}'", focused.getName(), command.getPath(), error);
+                    return List.of();
+                })
+                .thenAccept(choices -> reply(event, choices));
+    }
+
+    private void reply(CommandAutoCompleteInteractionEvent event, List<Command.Choice> choices) {
+        if (choices.size() > AutoCompleteProvider.MAX_CHOICES) {
+            choices = choices.subList(0, AutoCompleteProvider.MAX_CHOICES);
+        }
+
+        event.replyChoices(choices).queue();
+    }
+
+    /**
+     * Removes the expired entries of the caches.
+     */
+    public void evictExpired() {
+        for (Map<String, AutoCompleteProvider> options : providers.values()) {
+            for (AutoCompleteProvider provider : options.values()) {
+                if (provider instanceof CachedAutoCompleteProvider cached) {
+                    cached.evictExpired();
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
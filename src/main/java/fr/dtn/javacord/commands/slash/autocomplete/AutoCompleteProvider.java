@@ -0,0 +1,46 @@
+package fr.dtn.javacord.commands.slash.autocomplete;
+
+import fr.dtn.javacord.Bot;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
+
+import java.util.List;
+
+/**
+ * Suggests values for a slash command parameter while the user is typing it.
+ * <p>
+ * Autocompletion is requested on every keystroke : providers should answer quickly,
+ * and are given up on when they take longer than the autocompletion deadline of the bot.
+ */
+public interface AutoCompleteProvider {
+    /**
+     * The maximum number of choices accepted by Discord.
+     */
+    int MAX_CHOICES = 25;
+
+    /**
+     * Suggests values for the focused option of the event.
+     *
+     * @param bot   the bot.
+     * @param event the autocompletion event.
+     * @param input what the user has typed so far.
+     * @return at most {@link #MAX_CHOICES} choices.
+     */
+    List<Command.Choice> complete(Bot bot, CommandAutoCompleteInteractionEvent event, String input);
+
+    /**
+     * @return true if {@link #complete} may block (e.g. on I/O), in which case it runs on a separate thread under a deadline,
+     * false if it only reads memory and can answer directly.
+     */
+    default boolean isBlocking() {
+        return true;
+    }
+
+    /**
+     * @return true if the choices only depend on the input, and not on the user or on the other options,
+     * in which case they are cached per input for a limited time.
+     */
+    default boolean isCacheable() {
+        return false;
+    }
+}
@@ -0,0 +1,89 @@
+package fr.dtn.javacord.commands.slash.autocomplete;
+
+import fr.dtn.javacord.Bot;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the choices of another provider per input, for a limited time.
+ * <p>
+ * Only suitable for providers whose choices depend on the input alone, and not on the user or the other options.
+ */
+public class CachedAutoCompleteProvider implements AutoCompleteProvider {
+    private record Entry(List<Command.Choice> choices, long expiresAt) {
+    }
+
+    private final AutoCompleteProvider provider;
+    private final long ttl;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Entry> entries;
+
+    /**
+     * @param provider the provider to cache.
+     * @param ttl      how long the choices of an input are kept.
+     * @param maxSize  the maximum number of cached inputs.
+     */
+    public CachedAutoCompleteProvider(AutoCompleteProvider provider, Duration ttl, int maxSize) {
+        this.provider = provider;
+        this.ttl = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param input what the user has typed so far.
+     * @return the cached choices of the input, or null if they are not cached or expired.
+     */
+    public List<Command.Choice> getCached(String input) {
+        Entry entry = entries.get(input);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (System.nanoTime() - entry.expiresAt() > 0) {
+            entries.remove(input, entry);
+            return null;
+        }
+
+        return entry.choices();
+    }
+
+    @Override
+    public List<Command.Choice> complete(Bot bot, CommandAutoCompleteInteractionEvent event, String input) {
+        List<Command.Choice> choices = getCached(input);
+
+        if (choices != null) {
+            return choices;
+        }
+
+        choices = provider.complete(bot, event, input);
+
+        if (entries.size() >= maxSize) {
+            evictExpired();
+        }
+
+        if (entries.size() < maxSize) {
+            entries.put(input, new Entry(choices, System.nanoTime() + ttl));
+        }
+
+        return choices;
+    }
+
+    /**
+     * Removes the expired entries.
+     */
+    public void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.expiresAt() > 0);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return provider.isBlocking();
+    }
+}
@@ -0,0 +1,30 @@
+package fr.dtn.javacord.commands.slash.autocomplete;
+
+import fr.dtn.javacord.Bot;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Suggests the static choices of a parameter that start with what the user has typed.
+ */
+public class ChoicesAutoCompleteProvider implements AutoCompleteProvider {
+    private final PrefixIndex index;
+
+    public ChoicesAutoCompleteProvider(String[] choices, OptionType type) {
+        this.index = new PrefixIndex(Arrays.asList(choices), type);
+    }
+
+    @Override
+    public List<Command.Choice> complete(Bot bot, CommandAutoCompleteInteractionEvent event, String input) {
+        return index.search(input);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
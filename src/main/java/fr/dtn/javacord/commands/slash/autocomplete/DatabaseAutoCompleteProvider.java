@@ -0,0 +1,133 @@
+package fr.dtn.javacord.commands.slash.autocomplete;
+
+import fr.dtn.javacord.Bot;
+import fr.dtn.javacord.database.Database;
+import fr.dtn.javacord.database.HibernateEntity;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Suggests the distinct values of an entity field that start with what the user has typed.
+ * <p>
+ * The values are loaded in memory into a {@link PrefixIndex}, which is reloaded in the background once it is older than its refresh delay :
+ * only the very first autocompletions wait for the database. A single load runs at a time, and is shared by every request arriving during it.
+ */
+public class DatabaseAutoCompleteProvider implements AutoCompleteProvider {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Class<? extends HibernateEntity> entityClass;
+    private final String field;
+    private final OptionType type;
+    private final long refreshDelay;
+    private final Executor executor;
+    private final AtomicReference<CompletableFuture<PrefixIndex>> loading;
+
+    private volatile PrefixIndex index;
+    private volatile long loadedAt;
+
+    /**
+     * @param entityClass  the entity class.
+     * @param field        the name of the field whose values are suggested.
+     * @param type         the type of the option.
+     * @param refreshDelay the time after which the values are loaded again.
+     * @param executor     runs the background reloads, usually the executor of the autocompletion engine.
+     * @throws IllegalArgumentException if the field name is not a valid identifier.
+     */
+    public DatabaseAutoCompleteProvider(Class<? extends HibernateEntity> entityClass, String field, OptionType type, Duration refreshDelay, Executor executor) {
+        if (!field.matches("[A-Za-z_][A-Za-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid field name : '" + field + "'");
+        }
+
+        this.entityClass = entityClass;
+        this.field = field;
+        this.type = type;
+        this.refreshDelay = refreshDelay.toNanos();
+        this.executor = executor;
+        this.loading = new AtomicReference<>();
+    }
+
+    private PrefixIndex query(Database database) {
+        List<Object> values = database.doInTransaction(session -> session
+                .createQuery("select distinct e." + field + " from " + entityClass.getName() + " e", Object.class)
+                .getResultList());
+
+        PrefixIndex loaded = new PrefixIndex(values, type);
+
+        this.index = loaded;
+        this.loadedAt = System.nanoTime();
+
+        return loaded;
+    }
+
+    /**
+     * Loads the values, unless a load is already running, in which case its result is returned.
+     *
+     * @param background true to run the load on the executor, false to run it on the calling thread.
+     */
+    private CompletableFuture<PrefixIndex> load(Database database, boolean background) {
+        CompletableFuture<PrefixIndex> future = new CompletableFuture<>();
+        CompletableFuture<PrefixIndex> running = loading.compareAndExchange(null, future);
+
+        if (running != null) {
+            return running;
+        }
+
+        Runnable task = () -> {
+            try {
+                PrefixIndex loaded = query(database);
+                loading.set(null);
+                future.complete(loaded);
+            } catch (RuntimeException e) {
+                loading.set(null);
+                future.completeExceptionally(e);
+            }
+        };
+
+        if (!background) {
+            task.run();
+            return future;
+        }
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            loading.set(null);
+            future.completeExceptionally(e);
+        }
+
+        return future;
+    }
+
+    @Override
+    public List<Command.Choice> complete(Bot bot, CommandAutoCompleteInteractionEvent event, String input) {
+        PrefixIndex current = index;
+
+        if (current == null) {
+            // Runs on a thread of the engine : the first request loads the values itself, the others wait for it
+            current = load(bot.getDatabase(), false).join();
+        } else if (System.nanoTime() - loadedAt > refreshDelay && loading.get() == null) {
+            load(bot.getDatabase(), true).whenComplete((result, error) -> {
+                if (error != null) {
+                    logger.warn("Unable to reload the autocompletion values of {}.{}", entityClass.getSimpleName(), field, error);
+                }
+            });
+        }
+
+        return current.search(input);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return index == null;
+    }
+}
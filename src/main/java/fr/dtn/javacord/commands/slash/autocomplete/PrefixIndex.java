@@ -0,0 +1,99 @@
+package fr.dtn.javacord.commands.slash.autocomplete;
+
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An immutable, case-insensitive prefix index over a set of values, answering with at most
+ * {@link AutoCompleteProvider#MAX_CHOICES} choices in logarithmic time.
+ */
+public final class PrefixIndex {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * @throws IllegalArgumentException if the value is not a valid choice : empty, longer than what Discord allows,
+     *                                  or not a number for a numeric option type.
+     */
+    private static Command.Choice toChoice(Object value, OptionType type) {
+        String name = String.valueOf(value);
+
+        return switch (type) {
+            case INTEGER -> new Command.Choice(name, value instanceof Number number ? number.longValue() : Long.parseLong(name));
+            case NUMBER -> new Command.Choice(name, value instanceof Number number ? number.doubleValue() : Double.parseDouble(name));
+            default -> new Command.Choice(name, name);
+        };
+    }
+
+    private final String[] keys;
+    private final Command.Choice[] choices;
+
+    /**
+     * @param values the values to index. Their string representation is used as the name of the choices.
+     *               The values that cannot be choices, such as empty ones, are skipped.
+     * @param type   the type of the option, which determines the type of the values of the choices.
+     */
+    public PrefixIndex(Collection<?> values, OptionType type) {
+        List<Command.Choice> sorted = new ArrayList<>();
+
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            }
+
+            // A single invalid value must not prevent the others from being suggested
+            try {
+                sorted.add(toChoice(value, type));
+            } catch (IllegalArgumentException e) {
+                logger.debug("Skipping the value '{}' of a {} option, it cannot be a choice : {}", value, type, e.getMessage());
+            }
+        }
+
+        sorted.sort(Comparator.comparing(choice -> choice.getName().toLowerCase(Locale.ROOT)));
+
+        this.choices = sorted.toArray(new Command.Choice[0]);
+        this.keys = new String[choices.length];
+
+        for (int i = 0; i < choices.length; i++) {
+            keys[i] = choices[i].getName().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * @param input the beginning of a value, in any case.
+     * @return the first choices (in alphabetical order) whose name starts with the input.
+     */
+    public List<Command.Choice> search(String input) {
+        String prefix = input.toLowerCase(Locale.ROOT);
+        int index = Arrays.binarySearch(keys, prefix);
+
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            // Duplicate names : go back to the first one
+            while (index > 0 && keys[index - 1].equals(prefix)) {
+                index--;
+            }
+        }
+
+        int end = index;
+
+        while (end < keys.length && end - index < AutoCompleteProvider.MAX_CHOICES && keys[end].startsWith(prefix)) {
+            end++;
+        }
+
+        return List.copyOf(Arrays.asList(choices).subList(index, end));
+    }
+
+    public int size() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,145 @@
+package fr.dtn.javacord.concurrent;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks on an underlying {@link Executor} while keeping the tasks that share a key in submission order.
+ * <p>
+ * Tasks submitted with the same key never run concurrently, and run in the order they were submitted.
+ * Tasks with different keys run in parallel, within the limits of the underlying executor.
+ * A key only holds memory while it has pending tasks.
+ */
+public class KeyedExecutor {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Maximum number of tasks a lane runs before giving its thread back, so that a busy key cannot starve the others.
+     */
+    private static final int MAX_BATCH = 32;
+
+    private final Executor executor;
+    private final ConcurrentHashMap<Object, Lane> lanes;
+
+    public KeyedExecutor(Executor executor) {
+        this.executor = executor;
+        this.lanes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Submits a task that will run after every task previously submitted with the same key.
+     *
+     * @param key  the ordering key.
+     * @param task the task to run.
+     * @throws RejectedExecutionException if the underlying executor refuses the task, in which case the pending tasks of the key are dropped.
+     */
+    public void execute(Object key, Runnable task) {
+        Lane lane = lanes.compute(key, (k, existing) -> {
+            Lane found = existing == null ? new Lane(k) : existing;
+            found.add(task);
+            return found;
+        });
+
+        lane.schedule();
+    }
+
+    /**
+     * @return the number of keys that currently have pending or running tasks.
+     */
+    public int getActiveKeys() {
+        return lanes.size();
+    }
+
+    private final class Lane implements Runnable {
+        private final Object key;
+        private final ArrayDeque<Runnable> tasks;
+        private boolean running;
+
+        private Lane(Object key) {
+            this.key = key;
+            this.tasks = new ArrayDeque<>();
+        }
+
+        private synchronized void add(Runnable task) {
+            tasks.add(task);
+        }
+
+        private synchronized Runnable poll() {
+            Runnable task = tasks.poll();
+
+            if (task == null) {
+                running = false;
+            }
+
+            return task;
+        }
+
+        private synchronized boolean isIdle() {
+            return !running && tasks.isEmpty();
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (running || tasks.isEmpty()) {
+                    return;
+                }
+
+                running = true;
+            }
+
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                reject(e);
+                throw e;
+            }
+        }
+
+        /**
+         * Drops the pending tasks when the underlying executor refuses to run the lane, usually because it is shut down :
+         * otherwise the lane would stay marked as running, and the next tasks of the key would never run.
+         */
+        private void reject(RejectedExecutionException e) {
+            int dropped;
+
+            synchronized (this) {
+                dropped = tasks.size();
+                tasks.clear();
+                running = false;
+            }
+
+            lanes.computeIfPresent(key, (k, lane) -> lane.isIdle() ? null : lane);
+            logger.error("The executor refused to run the tasks for key '{}' : {} pending tasks dropped", key, dropped, e);
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_BATCH; i++) {
+                Runnable task = poll();
+
+                if (task == null) {
+                    lanes.computeIfPresent(key, (k, lane) -> lane.isIdle() ? null : lane);
+                    return;
+                }
+
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    logger.error("An error occurred while running a task for key '{}'", key, t);
+                }
+            }
+
+            // The batch is over but the lane is still marked as running : resubmit it behind the other lanes
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                reject(e);
+            }
+        }
+    }
+}
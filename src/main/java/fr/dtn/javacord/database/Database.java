@@ -1,27 +1,56 @@
 package fr.dtn.javacord.database;
 
+import com.moandjiezana.toml.Toml;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import fr.dtn.javacord.Bot;
+import fr.dtn.javacord.concurrent.KeyedExecutor;
+import fr.dtn.javacord.database.processor.EntityIndexProcessor;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.hibernate.Session;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.SessionFactory;
+import org.hibernate.SharedSessionContract;
+import org.hibernate.StatelessSession;
 import org.hibernate.Transaction;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.query.SelectionQuery;
 import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
 import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A utility class to manage Hibernate ORM database operations.
@@ -44,30 +73,105 @@ import java.util.function.Function;
  * <p>
  * This class is thread-safe for concurrent use.
  * <p>
- * Note: Entity classes are automatically discovered at runtime via reflections scanning.
+ * Every operation blocks the calling thread until the database answers. The '...Async' methods run them on a dedicated executor
+ * instead, and return a {@link CompletableFuture} : they keep the JDA shard threads free while the queries are in flight.
+ * <p>
+ * Note: Entity classes are listed at compile time by {@link EntityIndexProcessor}, or discovered at startup by scanning the classpath.
  */
 public class Database {
     private static final Logger logger = LogManager.getLogger();
 
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final long DEFAULT_CONNECTION_TIMEOUT = 30_000;
+    private static final long DEFAULT_IDLE_TIMEOUT = 600_000;
+    private static final long DEFAULT_MAX_LIFETIME = 1_800_000;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 250;
+    private static final int DEFAULT_STATEMENT_CACHE_SQL_LIMIT = 2048;
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    private static final long ASYNC_SHUTDOWN_TIMEOUT = 10_000;
+    private static final long DEFAULT_WRITE_BEHIND_INTERVAL = 1_000;
+    private static final int DEFAULT_WRITE_BEHIND_SIZE = 1000;
+    private static final int DEFAULT_WRITE_BEHIND_CAPACITY = 10_000;
+    private static final int MAX_QUERY_SHAPES = 1024;
+
     /**
-     * Scans the classpath and returns all classes extending {@link HibernateEntity} annotated with {@link Entity}.
+     * Finds the classes extending {@link HibernateEntity} annotated with {@link Entity} : from the indexes written at compile time
+     * by {@link EntityIndexProcessor} if there are some, otherwise by scanning the packages listed in 'entityPackages',
+     * and only otherwise by scanning the whole classpath.
      *
+     * @param packages the packages containing the entities, may be empty.
      * @return array of entity classes to be registered with Hibernate.
      */
-    private static Class<?>[] getAllEntities() {
-        ConfigurationBuilder config = new ConfigurationBuilder()
-                .setUrls(ClasspathHelper.forJavaClassPath())
-                .setScanners(Scanners.SubTypes);
-
-        Reflections reflections = new Reflections(config);
+    private static Class<?>[] getAllEntities(List<String> packages) {
+        Set<Class<?>> found = readEntityIndexes();
 
-        Set<Class<? extends HibernateEntity>> found = reflections.getSubTypesOf(HibernateEntity.class);
+        if (found != null) {
+            logger.info("Found {} entities in the entity indexes", found.size());
+        } else if (!packages.isEmpty()) {
+            found = scanEntities(new ConfigurationBuilder()
+                    .forPackages(packages.toArray(new String[0]))
+                    .filterInputsBy(new FilterBuilder().includePackage(packages.toArray(new String[0])))
+                    .setScanners(Scanners.SubTypes));
+            logger.info("Found {} entities in the packages {}", found.size(), packages);
+        } else {
+            logger.warn("No entity index nor 'entityPackages' found : scanning the whole classpath for entities, which slows down the startup");
+            found = scanEntities(new ConfigurationBuilder()
+                    .setUrls(ClasspathHelper.forJavaClassPath())
+                    .setScanners(Scanners.SubTypes));
+        }
 
         return found.stream()
-                .filter(c -> c.isAnnotationPresent(Entity.class))
+                .filter(c -> HibernateEntity.class.isAssignableFrom(c) && c.isAnnotationPresent(Entity.class))
                 .toArray(Class<?>[]::new);
     }
 
+    private static Set<Class<?>> scanEntities(ConfigurationBuilder config) {
+        return new HashSet<>(new Reflections(config).getSubTypesOf(HibernateEntity.class));
+    }
+
+    /**
+     * Reads the entity indexes of every jar and directory of the classpath.
+     *
+     * @return the classes listed in the indexes, or null if there is no index.
+     */
+    private static Set<Class<?>> readEntityIndexes() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+        if (loader == null) {
+            loader = Database.class.getClassLoader();
+        }
+
+        try {
+            Enumeration<URL> indexes = loader.getResources(EntityIndexProcessor.INDEX);
+
+            if (!indexes.hasMoreElements()) {
+                return null;
+            }
+
+            Set<Class<?>> found = new HashSet<>();
+
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank()) {
+                            found.add(Class.forName(line.trim(), false, loader));
+                        }
+                    }
+                }
+            }
+
+            return found;
+        } catch (IOException | ClassNotFoundException e) {
+            logger.error("Could not read the entity index '{}' : rebuild the bot to generate it again", EntityIndexProcessor.INDEX, e);
+            throw new IllegalArgumentException("Could not read the entity index", e);
+        }
+    }
+
     /**
      * Determines JDBC driver class based on database URL.
      *
@@ -98,11 +202,77 @@ public class Database {
         throw new IllegalArgumentException("Unknown DB dialect for URL: " + url);
     }
 
+    /**
+     * Reads a duration in seconds (integer or decimal) from the configuration.
+     *
+     * @return the duration in milliseconds.
+     */
+    private static long readMillis(Map<String, Object> values, String key, long defaultMillis) {
+        return values.get(key) instanceof Number seconds ? Math.round(seconds.doubleValue() * 1000) : defaultMillis;
+    }
+
+    private static int readInt(Map<String, Object> values, String key, int defaultValue) {
+        return values.get(key) instanceof Number number ? number.intValue() : defaultValue;
+    }
+
+    /**
+     * Creates the connection pool from the '[database]' section of the configuration.
+     * The prepared statement cache is configured through the properties of the JDBC driver, as it is driver-specific.
+     *
+     * @param values the '[database]' section.
+     */
+    private static HikariConfig createPoolConfig(String url, String user, String password, Map<String, Object> values) {
+        HikariConfig config = new HikariConfig();
+
+        config.setPoolName("javacord-database");
+        config.setDriverClassName(determineDriver(url));
+        config.setJdbcUrl(url);
+        config.setUsername(user);
+        config.setPassword(password);
+
+        int poolSize = readInt(values, "poolSize", DEFAULT_POOL_SIZE);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(readInt(values, "minimumIdle", poolSize));
+        config.setConnectionTimeout(readMillis(values, "connectionTimeout", DEFAULT_CONNECTION_TIMEOUT));
+        config.setIdleTimeout(readMillis(values, "idleTimeout", DEFAULT_IDLE_TIMEOUT));
+        config.setMaxLifetime(readMillis(values, "maxLifetime", DEFAULT_MAX_LIFETIME));
+        config.setLeakDetectionThreshold(readMillis(values, "leakDetectionThreshold", 0));
+
+        int statementCacheSize = readInt(values, "statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE);
+        int statementCacheSqlLimit = readInt(values, "statementCacheSqlLimit", DEFAULT_STATEMENT_CACHE_SQL_LIMIT);
+
+        if (statementCacheSize > 0 && url.contains("mysql")) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", statementCacheSize);
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", statementCacheSqlLimit);
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+        } else if (statementCacheSize > 0 && url.contains("postgresql")) {
+            config.addDataSourceProperty("preparedStatementCacheQueries", statementCacheSize);
+        }
+
+        // Without them, the MySQL driver sends the statements of a batch one by one, and loads whole results regardless of the fetch size
+        if (url.contains("mysql")) {
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+            config.addDataSourceProperty("useCursorFetch", "true");
+        }
+
+        return config;
+    }
+
     private final Bot bot;
+    private final HikariDataSource dataSource;
+    private final PoolMetrics poolMetrics;
     private final SessionFactory sessionFactory;
+    private final Map<Class<?>, EntityCache<?>> caches;
+    private final int batchSize;
+    private final int fetchSize;
+    private final ExecutorService asyncExecutor;
+    private final KeyedExecutor entityLanes;
+    private final WriteBehindBuffer writeBehind;
+    private final ConcurrentHashMap<QueryShape, QuerySpec<?>> querySpecs;
 
     /**
-     * Creates a new {@code Database} instance.
+     * Creates a new {@code Database} instance, with the default connection pool settings.
      *
      * @param bot      the bot instance, used for debug flag.
      * @param url      JDBC connection URL.
@@ -110,26 +280,258 @@ public class Database {
      * @param password DB password.
      */
     public Database(Bot bot, String url, String user, String password) {
+        this(bot, url, user, password, null);
+    }
+
+    /**
+     * Creates a new {@code Database} instance, backed by a pool of connections.
+     *
+     * @param bot      the bot instance, used for debug flag.
+     * @param url      JDBC connection URL.
+     * @param user     DB username.
+     * @param password DB password.
+     * @param config   the '[database]' section of the configuration, with the pool settings, may be null.
+     */
+    public Database(Bot bot, String url, String user, String password, Toml config) {
         this.bot = bot;
 
+        // The configuration is read and the entities found before the pool is opened, so that an invalid value leaks no connection
+        HikariConfig poolConfig = createPoolConfig(url, user, password, config == null ? Map.of() : config.toMap());
+
         Map<String, Object> settings = new HashMap<>();
 
-        settings.put("hibernate.connection.driver_class", determineDriver(url));
-        settings.put("hibernate.connection.url", url);
-        settings.put("hibernate.connection.username", user);
-        settings.put("hibernate.connection.password", password);
         settings.put("hibernate.dialect", determineDialect(url));
         settings.put("hibernate.hbm2ddl.auto", "update");
         settings.put("hibernate.show_sql", bot.isDebugMode());
+        settings.put("hibernate.query.plan_cache_enabled", true);
+
+        this.batchSize = Math.max(1, readInt(config == null ? Map.of() : config.toMap(), "batchSize", DEFAULT_BATCH_SIZE));
+        settings.put("hibernate.jdbc.batch_size", batchSize);
+        settings.put("hibernate.order_inserts", true);
+        settings.put("hibernate.order_updates", true);
+
+        this.fetchSize = Math.max(1, readInt(config == null ? Map.of() : config.toMap(), "fetchSize", DEFAULT_FETCH_SIZE));
+
+        IdMode idMode = readIdMode(config == null ? null : config.getString("idMode"));
+        settings.put(IdTypeContributor.ID_MODE_SETTING, idMode.name());
+        boolean timeOrderedIds = config != null && config.getBoolean("timeOrderedIds", false);
+        Boolean previousTimeOrderedIds = HibernateEntity.setTimeOrderedIds(timeOrderedIds);
+
+        if (previousTimeOrderedIds != null && previousTimeOrderedIds != timeOrderedIds) {
+            logger.warn("Another database was created with timeOrderedIds = {} : the new entities of every database now get {} ids",
+                    previousTimeOrderedIds, timeOrderedIds ? "time-ordered" : "random");
+        }
+        logger.info("Storing the ids of the entities as {}", idMode);
+
+        List<String> packages = config == null ? List.of() : config.getList("entityPackages", List.of());
+        Class<?>[] entities = getAllEntities(packages);
+        this.caches = createCaches(entities, config == null ? null : config.getTable("cache"));
+
+        this.poolMetrics = new PoolMetrics();
+        poolConfig.setMetricsTrackerFactory(poolMetrics);
+
+        this.dataSource = new HikariDataSource(poolConfig);
+
+        try {
+            poolMetrics.setPool(dataSource.getHikariPoolMXBean());
+            logger.info("Using a pool of {} database connections", poolConfig.getMaximumPoolSize());
+
+            settings.put("hibernate.connection.datasource", dataSource);
+
+            StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                    .applySettings(settings)
+                    .build();
+
+            this.sessionFactory = new MetadataSources(registry)
+                    .addAnnotatedClasses(entities)
+                    .buildMetadata()
+                    .buildSessionFactory();
+        } catch (RuntimeException e) {
+            dataSource.close();
+            throw e;
+        }
+
+        Map<String, Object> values = config == null ? Map.of() : config.toMap();
+        boolean virtualThreads = Boolean.TRUE.equals(values.get("asyncVirtualThreads"));
+        this.asyncExecutor = createAsyncExecutor(virtualThreads, Math.max(1, readInt(values, "asyncThreads", poolConfig.getMaximumPoolSize())));
+        this.entityLanes = new KeyedExecutor(asyncExecutor);
+        this.writeBehind = createWriteBehind(config == null ? null : config.getTable("writeBehind"));
+        this.querySpecs = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates the write-behind buffer from the '[database.writeBehind]' section, or returns null if the section is missing or the interval is zero.
+     */
+    private WriteBehindBuffer createWriteBehind(Toml config) {
+        if (config == null) {
+            return null;
+        }
+
+        Map<String, Object> values = config.toMap();
+        long interval = readMillis(values, "interval", DEFAULT_WRITE_BEHIND_INTERVAL);
+        int maxSize = Math.max(1, readInt(values, "maxSize", DEFAULT_WRITE_BEHIND_SIZE));
+        int capacity = Math.max(maxSize, readInt(values, "capacity", DEFAULT_WRITE_BEHIND_CAPACITY));
 
-        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
-                .applySettings(settings)
-                .build();
+        if (interval <= 0) {
+            return null;
+        }
+
+        logger.info("Buffering the writes of insertLater for up to {} ms or {} entities, holding at most {} entities", interval, maxSize, capacity);
+        return new WriteBehindBuffer(Duration.ofMillis(interval), maxSize, capacity, this::writeBuffered, asyncExecutor);
+    }
+
+    private static IdMode readIdMode(String name) {
+        if (name == null) {
+            return IdMode.STRING;
+        }
+
+        try {
+            return IdMode.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            // Falling back to another mode would make the existing ids unreadable
+            logger.error("The id mode specified in the config is invalid : '{}'", name);
+            throw new IllegalArgumentException("Invalid id mode : '" + name + "'", e);
+        }
+    }
+
+    /**
+     * Creates the executor of the asynchronous operations : virtual threads if they are requested and available,
+     * a fixed pool of threads otherwise, so that no more operations than connections wait for the pool by default.
+     */
+    private static ExecutorService createAsyncExecutor(boolean virtualThreads, int threads) {
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual threads are not available on this Java version, using a pool of {} database threads instead", threads);
+            }
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "javacord-database-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the caches of the entities annotated with {@link NearCache}, or listed in the '[database.cache]' section.
+     *
+     * @param entities the entity classes.
+     * @param config   the '[database.cache]' section, whose tables are named after the simple names of the entities, may be null.
+     */
+    private static Map<Class<?>, EntityCache<?>> createCaches(Class<?>[] entities, Toml config) {
+        Map<Class<?>, EntityCache<?>> caches = new HashMap<>();
+
+        for (Class<?> entity : entities) {
+            NearCache annotation = entity.getAnnotation(NearCache.class);
+            Toml table = config == null ? null : config.getTable(entity.getSimpleName());
+
+            if (annotation == null && table == null) {
+                continue;
+            }
+
+            Map<String, Object> values = table == null ? Map.of() : table.toMap();
+            long ttl = readMillis(values, "ttl", annotation == null ? 60_000 : annotation.ttl() * 1000);
+            int maxSize = readInt(values, "maxSize", annotation == null ? 10000 : annotation.maxSize());
 
-        this.sessionFactory = new MetadataSources(registry)
-                .addAnnotatedClasses(getAllEntities())
-                .buildMetadata()
-                .buildSessionFactory();
+            if (ttl <= 0 || maxSize <= 0) {
+                continue;
+            }
+
+            caches.put(entity, new EntityCache<>(Duration.ofMillis(ttl), maxSize));
+            logger.info("Caching up to {} entities of type {} for {} ms", maxSize, entity.getSimpleName(), ttl);
+        }
+
+        return Map.copyOf(caches);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends HibernateEntity> EntityCache<T> getCache(Class<T> entityClass) {
+        return caches.isEmpty() ? null : (EntityCache<T>) caches.get(entityClass);
+    }
+
+    /**
+     * @param entityClass the entity class.
+     * @return the cache of the entity class, or null if its entities are not cached.
+     */
+    public <T extends HibernateEntity> EntityCache<T> getEntityCache(Class<T> entityClass) {
+        return getCache(entityClass);
+    }
+
+    /**
+     * Removes an entity from the cache, after it was written without using {@link #insert} or {@link #deleteById}.
+     */
+    public <T extends HibernateEntity> void invalidate(Class<T> entityClass, UUID id) {
+        EntityCache<T> cache = getCache(entityClass);
+
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * Removes every entity of a class from the cache, after they were written without using {@link #insert} or {@link #deleteById}.
+     */
+    public <T extends HibernateEntity> void invalidateAll(Class<T> entityClass) {
+        EntityCache<T> cache = getCache(entityClass);
+
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Removes the expired entities of every cache.
+     */
+    public void evictExpired() {
+        for (EntityCache<?> cache : caches.values()) {
+            cache.evictExpired();
+        }
+    }
+
+    /**
+     * Waits for the pending asynchronous operations, flushes the write-behind buffer,
+     * then closes the session factory and every connection of the pool.
+     */
+    public void close() {
+        asyncExecutor.shutdown();
+
+        try {
+            if (!asyncExecutor.awaitTermination(ASYNC_SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                logger.warn("Some asynchronous database operations did not finish in time : cancelling them");
+                asyncExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            asyncExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            if (writeBehind != null) {
+                writeBehind.flush();
+            }
+
+            sessionFactory.close();
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * @return the metrics of the connection pool.
+     */
+    public PoolMetrics getPoolMetrics() {
+        return poolMetrics;
+    }
+
+    /**
+     * @return the buffer of {@link #insertLater}, with its metrics, or null if the writes are not buffered.
+     */
+    public WriteBehindBuffer getWriteBehindBuffer() {
+        return writeBehind;
     }
 
     /**
@@ -141,9 +543,106 @@ public class Database {
      * @return Optional containing entity if found, empty otherwise.
      */
     public <T extends HibernateEntity> Optional<T> selectById(Class<T> entityClass, UUID id) {
+        if (writeBehind != null) {
+            T buffered = writeBehind.get(entityClass, id);
+
+            if (buffered != null) {
+                return Optional.of(buffered);
+            }
+        }
+
+        EntityCache<T> cache = getCache(entityClass);
+
+        if (cache == null) {
+            return Optional.ofNullable(find(entityClass, id));
+        }
+
+        T cached = cache.get(id);
+
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long stamp = cache.stamp();
+        T entity = find(entityClass, id);
+
+        if (entity != null) {
+            cache.put(id, entity, stamp);
+        }
+
+        return Optional.ofNullable(entity);
+    }
+
+    /**
+     * Selects the entities of many ids at once : the entities that are not buffered nor cached are loaded by
+     * {@code batchSize} ids per statement, instead of one statement per id.
+     *
+     * @param entityClass the entity class type.
+     * @param ids         the UUID identifiers.
+     * @param <T>         type of entity.
+     * @return the entities found, in the order of the ids.
+     */
+    public <T extends HibernateEntity> List<T> selectByIds(Class<T> entityClass, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        EntityCache<T> cache = getCache(entityClass);
+        Map<UUID, T> found = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+
+        for (UUID id : ids) {
+            T entity = writeBehind == null ? null : writeBehind.get(entityClass, id);
+
+            if (entity == null && cache != null) {
+                entity = cache.get(id);
+            }
+
+            if (entity != null) {
+                found.put(id, entity);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long stamp = cache == null ? 0 : cache.stamp();
+
+            try (Session session = sessionFactory.openSession()) {
+                List<T> loaded = session.byMultipleIds(entityClass)
+                        .withBatchSize(batchSize)
+                        .multiLoad(missing);
+
+                for (T entity : loaded) {
+                    if (entity == null) {
+                        continue;
+                    }
+
+                    found.put(entity.getId(), entity);
+
+                    if (cache != null) {
+                        cache.put(entity.getId(), entity, stamp);
+                    }
+                }
+            }
+        }
+
+        List<T> entities = new ArrayList<>(found.size());
+
+        for (UUID id : ids) {
+            T entity = found.get(id);
+
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+
+        return entities;
+    }
+
+    private <T extends HibernateEntity> T find(Class<T> entityClass, UUID id) {
         try (Session session = sessionFactory.openSession()) {
-            T entity = session.find(entityClass, id.toString());
-            return Optional.ofNullable(entity);
+            return session.find(entityClass, id);
         }
     }
 
@@ -163,15 +662,210 @@ public class Database {
             throw new IllegalArgumentException("Entity class must be annotated with @Table");
         }
 
+        if (writeBehind == null) {
+            merge(entity);
+            return;
+        }
+
+        // The pending write of the entity is dropped only once this one is committed
+        writeBehind.writeThrough(entity.getClass(), entity.getId(), () -> {
+            merge(entity);
+            return null;
+        });
+    }
+
+    private <T extends HibernateEntity> void merge(T entity) {
+        Transaction tx = null;
+        try (Session session = sessionFactory.openSession()) {
+            tx = session.beginTransaction();
+
+            session.merge(entity);
+
+            tx.commit();
+            invalidate(entity.getClass(), entity.getId());
+            if (bot.isDebugMode()) {
+                logger.info("Entity of type {} with id={} saved/updated successfully.", entity.getClass().getSimpleName(), entity.getId());
+            }
+        } catch (Exception e) {
+            if (tx != null) {
+                try {
+                    tx.rollback();
+                    logger.warn("Transaction rolled back due to an error.");
+                } catch (Exception rollbackEx) {
+                    logger.error("Error during transaction rollback", rollbackEx);
+                }
+            }
+            logger.error("Failed to save or update entity of type {} with id={}", entity.getClass().getSimpleName(), entity.getId(), e);
+            throw new RuntimeException("Could not save or update entity", e);
+        }
+    }
+
+    /**
+     * Inserts or updates an entity later, with the other entities written by this method, if '[database.writeBehind]' is configured.
+     * <p>
+     * Writing an entity again before it is flushed replaces its pending write, so an entity updated many times costs a single statement.
+     * {@link #selectById} and {@link #existsById} see the pending writes, but the queries on other fields do not until they are flushed.
+     * The writes pending when the bot stops abruptly are lost : only use it for data that can afford it, such as counters.
+     * Without write-behind configuration, or when the buffer is full, the entity is written immediately by {@link #insert}.
+     *
+     * @param entity the entity instance to save or update.
+     * @param <T>    type of entity.
+     * @throws IllegalArgumentException if entity is null or missing {@code @Table} annotation.
+     */
+    public <T extends HibernateEntity> void insertLater(T entity) {
+        if (writeBehind == null) {
+            insert(entity);
+            return;
+        }
+
+        if (entity == null) {
+            throw new IllegalArgumentException("Entity cannot be null");
+        }
+        if (!entity.getClass().isAnnotationPresent(Table.class)) {
+            throw new IllegalArgumentException("Entity class must be annotated with @Table");
+        }
+
+        if (!writeBehind.add(entity)) {
+            insert(entity);
+        }
+    }
+
+    /**
+     * Writes the entities of the write-behind buffer in a single transaction, with upserts that do not need to load the entities first.
+     */
+    private void writeBuffered(List<HibernateEntity> entities) {
+        Transaction tx = null;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            tx = session.beginTransaction();
+
+            for (HibernateEntity entity : entities) {
+                session.upsert(entity);
+            }
+
+            tx.commit();
+            invalidateAll(entities);
+
+            if (bot.isDebugMode()) {
+                logger.info("{} buffered entities flushed successfully.", entities.size());
+            }
+        } catch (Exception e) {
+            if (tx != null) {
+                try {
+                    tx.rollback();
+                    logger.warn("Transaction rolled back due to an error.");
+                } catch (Exception rollbackEx) {
+                    logger.error("Error during transaction rollback", rollbackEx);
+                }
+            }
+            throw new RuntimeException("Could not flush buffered entities", e);
+        }
+    }
+
+    /**
+     * Inserts new entities in a single transaction, sending them to the database by JDBC batches.
+     * <p>
+     * Unlike {@link #insert}, the entities are not merged : they must not exist in the database yet, use {@link #updateAll} for those.
+     * The session is flushed and cleared after each batch, so the memory used does not depend on the number of entities.
+     *
+     * @param entities the entities to insert.
+     * @param <T>      type of entity.
+     * @throws RuntimeException if transaction fails, in which case no entity is inserted.
+     */
+    public <T extends HibernateEntity> void insertAll(Collection<T> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        if (writeBehind == null) {
+            persistAll(entities);
+            return;
+        }
+
+        // The pending writes of the entities are dropped only once these ones are committed
+        writeBehind.writeThrough(entities, () -> {
+            persistAll(entities);
+            return null;
+        });
+    }
+
+    private <T extends HibernateEntity> void persistAll(Collection<T> entities) {
+        Transaction tx = null;
+        try (Session session = sessionFactory.openSession()) {
+            session.setJdbcBatchSize(batchSize);
+            tx = session.beginTransaction();
+
+            int count = 0;
+
+            for (T entity : entities) {
+                session.persist(entity);
+
+                if (++count % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+
+            tx.commit();
+            invalidateAll(entities);
+
+            if (bot.isDebugMode()) {
+                logger.info("{} entities inserted successfully.", entities.size());
+            }
+        } catch (Exception e) {
+            if (tx != null) {
+                try {
+                    tx.rollback();
+                    logger.warn("Transaction rolled back due to an error.");
+                } catch (Exception rollbackEx) {
+                    logger.error("Error during transaction rollback", rollbackEx);
+                }
+            }
+            logger.error("Failed to insert {} entities", entities.size(), e);
+            throw new RuntimeException("Could not insert entities", e);
+        }
+    }
+
+    /**
+     * Updates existing entities in a single transaction, sending them to the database by JDBC batches.
+     * <p>
+     * A stateless session is used : the entities are written as they are, without being loaded first nor kept in memory.
+     *
+     * @param entities the entities to update.
+     * @param <T>      type of entity.
+     * @throws RuntimeException if transaction fails, in which case no entity is updated.
+     */
+    public <T extends HibernateEntity> void updateAll(Collection<T> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        if (writeBehind == null) {
+            updateStateless(entities);
+            return;
+        }
+
+        writeBehind.writeThrough(entities, () -> {
+            updateStateless(entities);
+            return null;
+        });
+    }
+
+    private <T extends HibernateEntity> void updateStateless(Collection<T> entities) {
         Transaction tx = null;
-        try (Session session = sessionFactory.openSession()) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
             tx = session.beginTransaction();
 
-            session.merge(entity);
+            for (T entity : entities) {
+                session.update(entity);
+            }
 
             tx.commit();
+            invalidateAll(entities);
+
             if (bot.isDebugMode()) {
-                logger.info("Entity of type {} with id={} saved/updated successfully.", entity.getClass().getSimpleName(), entity.getId());
+                logger.info("{} entities updated successfully.", entities.size());
             }
         } catch (Exception e) {
             if (tx != null) {
@@ -182,13 +876,102 @@ public class Database {
                     logger.error("Error during transaction rollback", rollbackEx);
                 }
             }
-            logger.error("Failed to save or update entity of type {} with id={}", entity.getClass().getSimpleName(), entity.getId(), e);
-            throw new RuntimeException("Could not save or update entity", e);
+            logger.error("Failed to update {} entities", entities.size(), e);
+            throw new RuntimeException("Could not update entities", e);
+        }
+    }
+
+    private void invalidateAll(Collection<? extends HibernateEntity> entities) {
+        if (caches.isEmpty()) {
+            return;
+        }
+
+        for (HibernateEntity entity : entities) {
+            invalidate(entity.getClass(), entity.getId());
+        }
+    }
+
+    /**
+     * The shape of a query : the entity class, the filtered fields, sorted by name, and the sort fields.
+     */
+    private record QueryShape(Class<?> entityClass, List<String> filterFields, List<QuerySpec.Order> sortFields) {
+    }
+
+    /**
+     * Gets the compiled query selecting the entities matching exact field-value pairs, sorted by the given fields.
+     * It is compiled on the first call for its shape, and then reused whatever the values are.
+     *
+     * @param filters    map of field names and expected values, may be null.
+     * @param sortFields map of field names to sort order (true=ascending, false=descending), may be null.
+     * @throws IllegalArgumentException if a field name is invalid.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends HibernateEntity> QuerySpec<T> getQuerySpec(Class<T> entityClass, Map<String, Object> filters, Map<String, Boolean> sortFields) {
+        // Sorted, so that maps with the same keys in another order share the query
+        List<String> filterFields = filters == null || filters.isEmpty() ? List.of() : filters.keySet().stream().sorted().toList();
+        List<QuerySpec.Order> orders = new ArrayList<>();
+
+        if (sortFields != null) {
+            for (Map.Entry<String, Boolean> entry : sortFields.entrySet()) {
+                orders.add(new QuerySpec.Order(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        QueryShape shape = new QueryShape(entityClass, filterFields, orders);
+        QuerySpec<?> spec = querySpecs.get(shape);
+
+        if (spec == null) {
+            QuerySpec.Builder<T> builder = QuerySpec.of(entityClass);
+            filterFields.forEach(builder::where);
+            orders.forEach(order -> builder.orderBy(order.field(), order.ascending()));
+            spec = builder.build();
+
+            // The shapes come from the code, so this limit is only reached if field names come from user input
+            if (querySpecs.size() < MAX_QUERY_SHAPES) {
+                querySpecs.putIfAbsent(shape, spec);
+            }
         }
+
+        return (QuerySpec<T>) spec;
+    }
+
+    private <T extends HibernateEntity> SelectionQuery<T> createQuery(SharedSessionContract session, Class<T> entityClass, Map<String, Object> filters, Map<String, Boolean> sortFields) {
+        QuerySpec<T> spec = getQuerySpec(entityClass, filters, sortFields);
+        return createQuery(session, spec, filters == null ? new Object[0] : spec.getValues(filters));
+    }
+
+    /**
+     * Creates a query from its compiled HQL, and binds its values.
+     *
+     * @throws IllegalArgumentException if the number of values does not match the number of filtered fields.
+     */
+    private static <T extends HibernateEntity> SelectionQuery<T> createQuery(SharedSessionContract session, QuerySpec<T> spec, Object[] values) {
+        return createQuery(session, spec, spec.getHql(), spec.getEntityClass(), values);
+    }
+
+    /**
+     * Creates a query from the compiled HQL of a query, or of a projection of it, and binds its values.
+     *
+     * @throws IllegalArgumentException if the number of values does not match the number of filtered fields.
+     */
+    private static <R> SelectionQuery<R> createQuery(SharedSessionContract session, QuerySpec<?> spec, String hql, Class<R> resultType, Object[] values) {
+        if (values.length != spec.getFilterFields().size()) {
+            throw new IllegalArgumentException("Expected " + spec.getFilterFields().size() + " values for query '" + spec + "', got " + values.length);
+        }
+
+        SelectionQuery<R> query = session.createSelectionQuery(hql, resultType);
+
+        for (int i = 0; i < values.length; i++) {
+            query.setParameter("p" + i, values[i]);
+        }
+
+        return query;
     }
 
     /**
      * Selects entities matching exact field-value pairs.
+     * <p>
+     * The whole result is loaded in memory : use {@link #streamWhere} or {@link #forEachWhere} for large results.
      *
      * @param entityClass the entity class type.
      * @param fieldValues map of field names and their expected values.
@@ -197,21 +980,98 @@ public class Database {
      */
     public <T extends HibernateEntity> Set<T> selectWhere(Class<T> entityClass, Map<String, Object> fieldValues) {
         try (Session session = sessionFactory.openSession()) {
-            CriteriaBuilder cb = session.getCriteriaBuilder();
-            CriteriaQuery<T> query = cb.createQuery(entityClass);
-            Root<T> root = query.from(entityClass);
+            return new HashSet<>(createQuery(session, entityClass, fieldValues, null).getResultList());
+        }
+    }
 
-            Predicate predicate = cb.conjunction();
+    /**
+     * Streams the entities matching exact field-value pairs, reading them from the database by batches of {@code fetchSize}
+     * instead of loading the whole result in memory.
+     * <p>
+     * The stream holds a connection until it is closed, so it must be used in a try-with-resources block.
+     * The entities are read with a stateless session : they are detached, and their lazy associations cannot be loaded.
+     *
+     * @param entityClass the entity class type.
+     * @param fieldValues map of field names and their expected values, may be null.
+     * @param <T>         type of entity.
+     * @return an ordered stream of the matching entities, to close after use.
+     */
+    public <T extends HibernateEntity> Stream<T> streamWhere(Class<T> entityClass, Map<String, Object> fieldValues) {
+        return streamWhereSorted(entityClass, fieldValues, null);
+    }
 
-            if (fieldValues != null && !fieldValues.isEmpty()) {
-                for (Map.Entry<String, Object> entry : fieldValues.entrySet()) {
-                    predicate = cb.and(predicate, cb.equal(root.get(entry.getKey()), entry.getValue()));
+    /**
+     * Streams the entities matching exact field-value pairs, sorted by the given fields.
+     *
+     * @param sortFields map of field names to sort order (true=ascending, false=descending), may be null.
+     * @see #streamWhere(Class, Map)
+     */
+    public <T extends HibernateEntity> Stream<T> streamWhereSorted(Class<T> entityClass, Map<String, Object> fieldValues, Map<String, Boolean> sortFields) {
+        QuerySpec<T> spec = getQuerySpec(entityClass, fieldValues, sortFields);
+        return stream(spec, fieldValues == null ? new Object[0] : spec.getValues(fieldValues));
+    }
+
+    /**
+     * Streams the entities selected by a compiled query.
+     *
+     * @param spec   the query.
+     * @param values the values of the filtered fields of the query, in order.
+     * @see #streamWhere(Class, Map)
+     * @throws IllegalArgumentException if the number of values does not match the number of filtered fields.
+     */
+    public <T extends HibernateEntity> Stream<T> stream(QuerySpec<T> spec, Object... values) {
+        StatelessSession session = sessionFactory.openStatelessSession();
+
+        try {
+            // PostgreSQL only uses a cursor inside a transaction
+            Transaction tx = session.beginTransaction();
+
+            ScrollableResults<T> results = createQuery(session, spec, values)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+
+            Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> action) {
+                    if (!results.next()) {
+                        return false;
+                    }
+
+                    action.accept(results.get());
+                    return true;
                 }
-            }
+            };
 
-            query.select(root).where(predicate);
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    results.close();
+
+                    if (tx.isActive()) {
+                        tx.commit();
+                    }
+                } finally {
+                    session.close();
+                }
+            });
+        } catch (RuntimeException e) {
+            session.close();
+            logger.error("Failed to stream entities of type {}", spec.getEntityClass().getSimpleName(), e);
+            throw e;
+        }
+    }
 
-            return new HashSet<>(session.createQuery(query).getResultList());
+    /**
+     * Calls an action for each entity matching exact field-value pairs, reading them from the database by batches of {@code fetchSize}.
+     *
+     * @param entityClass the entity class type.
+     * @param fieldValues map of field names and their expected values, may be null.
+     * @param action      the action called for each entity.
+     * @param <T>         type of entity.
+     * @see #streamWhere(Class, Map)
+     */
+    public <T extends HibernateEntity> void forEachWhere(Class<T> entityClass, Map<String, Object> fieldValues, Consumer<? super T> action) {
+        try (Stream<T> stream = streamWhere(entityClass, fieldValues)) {
+            stream.forEach(action);
         }
     }
 
@@ -236,10 +1096,20 @@ public class Database {
      * @throws RuntimeException if transaction fails.
      */
     public <T extends HibernateEntity> boolean deleteById(Class<T> entityClass, UUID id) {
+        if (writeBehind == null) {
+            return delete(entityClass, id);
+        }
+
+        // An entity that was only written with insertLater is deleted by dropping its pending write
+        boolean buffered = writeBehind.get(entityClass, id) != null;
+        return writeBehind.writeThrough(entityClass, id, () -> delete(entityClass, id)) || buffered;
+    }
+
+    private <T extends HibernateEntity> boolean delete(Class<T> entityClass, UUID id) {
         Transaction tx = null;
         try (Session session = sessionFactory.openSession()) {
             tx = session.beginTransaction();
-            T entity = session.find(entityClass, id.toString());
+            T entity = session.find(entityClass, id);
             if (entity == null) {
                 if (bot.isDebugMode()) {
                     logger.info("Entity of type {} with id={} not found for deletion.", entityClass.getSimpleName(), id);
@@ -248,6 +1118,7 @@ public class Database {
             }
             session.remove(entity);
             tx.commit();
+            invalidate(entityClass, id);
             if (bot.isDebugMode()) {
                 logger.info("Entity of type {} with id={} deleted successfully.", entityClass.getSimpleName(), id);
             }
@@ -274,35 +1145,101 @@ public class Database {
      * @param offset      zero-based offset of first result.
      * @param limit       maximum number of results to return.
      * @param <T>         type of entity.
-     * @return set of entities matching the criteria within the page.
+     * @return list of entities matching the criteria within the page, in the order returned by the database.
      * @throws IllegalArgumentException if offset < 0 or limit <= 0.
      */
-    public <T extends HibernateEntity> Set<T> selectPagedWhere(Class<T> entityClass, Map<String, Object> filters, int offset, int limit) {
+    public <T extends HibernateEntity> List<T> selectPagedWhere(Class<T> entityClass, Map<String, Object> filters, int offset, int limit) {
         if (offset < 0 || limit <= 0) {
             throw new IllegalArgumentException("Offset must be >= 0 and limit must be > 0");
         }
 
+        try (Session session = sessionFactory.openSession()) {
+            return createQuery(session, entityClass, filters, null)
+                    .setFirstResult(offset)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+    }
+
+    /**
+     * Selects a page of entities matching the given filters, sorted by a field, starting after a cursor.
+     * <p>
+     * Unlike {@link #selectPagedWhere}, the database seeks directly to the first entity of the page using the index
+     * of the sort field, instead of reading and discarding every previous entity : every page costs the same.
+     * Entities with the same value of the sort field are ordered by id. The sort field must not be null.
+     *
+     * @param entityClass the entity class type.
+     * @param filters     map of field names and expected values, may be null.
+     * @param sortField   the field the entities are sorted by.
+     * @param ascending   whether the entities are sorted in ascending order.
+     * @param after       the cursor of the page, returned with the previous page, or null for the first page.
+     * @param limit       maximum number of results to return.
+     * @param <T>         type of entity.
+     * @return the page, with the cursor of the next page.
+     * @throws IllegalArgumentException if limit <= 0, or if the cursor does not match the type of the sort field.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T extends HibernateEntity> KeysetPage<T> selectPageAfter(Class<T> entityClass, Map<String, Object> filters, String sortField, boolean ascending, KeysetCursor after, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be > 0");
+        }
+
         try (Session session = sessionFactory.openSession()) {
             CriteriaBuilder cb = session.getCriteriaBuilder();
-            CriteriaQuery<T> query = cb.createQuery(entityClass);
+            CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
             Root<T> root = query.from(entityClass);
 
+            Path sort = root.get(sortField);
+            Path id = root.get("id");
+
             Predicate predicate = cb.conjunction();
             if (filters != null && !filters.isEmpty()) {
                 for (Map.Entry<String, Object> entry : filters.entrySet()) {
                     predicate = cb.and(predicate, cb.equal(root.get(entry.getKey()), entry.getValue()));
                 }
             }
-            query.where(predicate);
 
-            var q = session.createQuery(query);
-            q.setFirstResult(offset);
-            q.setMaxResults(limit);
+            if (after != null) {
+                Comparable value = (Comparable) after.getValue(sort.getJavaType());
+
+                // (sort, id) > (value, after.id), written without row values as not every database supports them
+                Predicate seek = ascending
+                        ? cb.or(cb.greaterThan(sort, value), cb.and(cb.equal(sort, value), cb.greaterThan(id, after.id())))
+                        : cb.or(cb.lessThan(sort, value), cb.and(cb.equal(sort, value), cb.lessThan(id, after.id())));
+
+                predicate = cb.and(predicate, seek);
+            }
+
+            query.multiselect(root, sort)
+                    .where(predicate)
+                    .orderBy(ascending ? cb.asc(sort) : cb.desc(sort), ascending ? cb.asc(id) : cb.desc(id));
+
+            // One more entity tells whether there is a next page
+            List<Object[]> rows = session.createQuery(query).setMaxResults(limit + 1).getResultList();
+            List<T> entities = new ArrayList<>(Math.min(rows.size(), limit));
+
+            for (int i = 0; i < rows.size() && i < limit; i++) {
+                entities.add((T) rows.get(i)[0]);
+            }
+
+            if (rows.size() <= limit) {
+                return new KeysetPage<>(entities, null);
+            }
 
-            return new HashSet<>(q.getResultList());
+            Object[] last = rows.get(limit - 1);
+            return new KeysetPage<>(entities, KeysetCursor.of(last[1], ((T) last[0]).getId()));
         }
     }
 
+    /**
+     * Selects a page of all entities, sorted by a field, starting after a cursor.
+     *
+     * @see #selectPageAfter(Class, Map, String, boolean, KeysetCursor, int)
+     */
+    public <T extends HibernateEntity> KeysetPage<T> selectPageAfter(Class<T> entityClass, String sortField, boolean ascending, KeysetCursor after, int limit) {
+        return selectPageAfter(entityClass, null, sortField, ascending, after, limit);
+    }
+
     /**
      * Selects a paginated subset of all entities.
      *
@@ -310,10 +1247,10 @@ public class Database {
      * @param offset      zero-based offset of first result.
      * @param limit       maximum number of results to return.
      * @param <T>         type of entity.
-     * @return set of entities within the page.
+     * @return list of entities within the page.
      * @throws IllegalArgumentException if offset < 0 or limit <= 0.
      */
-    public <T extends HibernateEntity> Set<T> selectPaged(Class<T> entityClass, int offset, int limit) {
+    public <T extends HibernateEntity> List<T> selectPaged(Class<T> entityClass, int offset, int limit) {
         return selectPagedWhere(entityClass, null, offset, limit);
     }
 
@@ -322,37 +1259,52 @@ public class Database {
      *
      * @param entityClass the entity class type.
      * @param filters     map of field names and expected values.
-     * @param sortFields  map of field names to sort order (true=ascending, false=descending).
+     * @param sortFields  map of field names to sort order (true=ascending, false=descending), applied in iteration order.
      * @param <T>         type of entity.
-     * @return set of matching entities sorted accordingly.
+     * @return list of matching entities sorted accordingly.
      */
-    public <T extends HibernateEntity> Set<T> selectWhereSorted(Class<T> entityClass, Map<String, Object> filters, Map<String, Boolean> sortFields) {
+    public <T extends HibernateEntity> List<T> selectWhereSorted(Class<T> entityClass, Map<String, Object> filters, Map<String, Boolean> sortFields) {
         try (Session session = sessionFactory.openSession()) {
-            CriteriaBuilder cb = session.getCriteriaBuilder();
-            CriteriaQuery<T> query = cb.createQuery(entityClass);
-            Root<T> root = query.from(entityClass);
+            return createQuery(session, entityClass, filters, sortFields).getResultList();
+        }
+    }
 
-            Predicate predicate = cb.conjunction();
-            if (filters != null && !filters.isEmpty()) {
-                for (Map.Entry<String, Object> entry : filters.entrySet()) {
-                    predicate = cb.and(predicate, cb.equal(root.get(entry.getKey()), entry.getValue()));
-                }
-            }
-            query.where(predicate);
+    /**
+     * Selects the entities of a compiled query.
+     *
+     * @param spec   the query.
+     * @param values the values of the filtered fields of the query, in order.
+     * @param <T>    type of entity.
+     * @return list of matching entities, in the order of the query.
+     * @throws IllegalArgumentException if the number of values does not match the number of filtered fields.
+     */
+    public <T extends HibernateEntity> List<T> select(QuerySpec<T> spec, Object... values) {
+        try (Session session = sessionFactory.openSession()) {
+            return createQuery(session, spec, values).getResultList();
+        }
+    }
 
-            if (sortFields != null && !sortFields.isEmpty()) {
-                List<jakarta.persistence.criteria.Order> orders = new ArrayList<>();
-                for (Map.Entry<String, Boolean> entry : sortFields.entrySet()) {
-                    if (entry.getValue()) {
-                        orders.add(cb.asc(root.get(entry.getKey())));
-                    } else {
-                        orders.add(cb.desc(root.get(entry.getKey())));
-                    }
-                }
-                query.orderBy(orders);
-            }
+    /**
+     * Selects a page of the entities of a compiled query.
+     *
+     * @param spec   the query.
+     * @param offset zero-based offset of first result.
+     * @param limit  maximum number of results to return.
+     * @param values the values of the filtered fields of the query, in order.
+     * @param <T>    type of entity.
+     * @return list of entities within the page, in the order of the query.
+     * @throws IllegalArgumentException if offset < 0 or limit <= 0, or if the number of values does not match the number of filtered fields.
+     */
+    public <T extends HibernateEntity> List<T> selectPaged(QuerySpec<T> spec, int offset, int limit, Object... values) {
+        if (offset < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Offset must be >= 0 and limit must be > 0");
+        }
 
-            return new HashSet<>(session.createQuery(query).getResultList());
+        try (Session session = sessionFactory.openSession()) {
+            return createQuery(session, spec, values)
+                    .setFirstResult(offset)
+                    .setMaxResults(limit)
+                    .getResultList();
         }
     }
 
@@ -383,14 +1335,94 @@ public class Database {
      * @return true if entity exists, false otherwise.
      */
     public <T extends HibernateEntity> boolean existsById(Class<T> entityClass, UUID id) {
+        if (writeBehind != null && writeBehind.get(entityClass, id) != null) {
+            return true;
+        }
+
+        EntityCache<T> cache = getCache(entityClass);
+
+        if (cache != null && cache.get(id) != null) {
+            return true;
+        }
+
+        return existsWhere(entityClass, Map.of("id", id));
+    }
+
+    /**
+     * Checks if an entity matches exact field-value pairs, by selecting the id of at most one entity instead of loading them.
+     *
+     * @param entityClass the entity class type.
+     * @param filters     map of field names and expected values, may be null.
+     * @param <T>         type of entity.
+     * @return true if an entity matches, false otherwise.
+     */
+    public <T extends HibernateEntity> boolean existsWhere(Class<T> entityClass, Map<String, Object> filters) {
+        QuerySpec<T> spec = getQuerySpec(entityClass, filters, null);
+
+        try (Session session = sessionFactory.openSession()) {
+            return !createQuery(session, spec, spec.getHql(List.of("id")), Object.class, filters == null ? new Object[0] : spec.getValues(filters))
+                    .setMaxResults(1)
+                    .getResultList()
+                    .isEmpty();
+        }
+    }
+
+    /**
+     * Counts the entities matching exact field-value pairs.
+     *
+     * @param entityClass the entity class type.
+     * @param filters     map of field names and expected values, may be null.
+     * @param <T>         type of entity.
+     * @return the number of matching entities.
+     */
+    public <T extends HibernateEntity> long countWhere(Class<T> entityClass, Map<String, Object> filters) {
+        QuerySpec<T> spec = getQuerySpec(entityClass, filters, null);
+
+        try (Session session = sessionFactory.openSession()) {
+            return createQuery(session, spec, "select count(e) " + spec.getHql(), Long.class, filters == null ? new Object[0] : spec.getValues(filters)).getSingleResult();
+        }
+    }
+
+    /**
+     * Selects some fields of the entities matching exact field-value pairs, without loading the entities.
+     *
+     * @param entityClass the entity class type.
+     * @param filters     map of field names and expected values, may be null.
+     * @param fields      the names of the fields to select.
+     * @param <T>         type of entity.
+     * @return a row per matching entity, with the values of the fields in the given order.
+     * @throws IllegalArgumentException if a field name is invalid.
+     */
+    public <T extends HibernateEntity> List<Object[]> selectFieldsWhere(Class<T> entityClass, Map<String, Object> filters, String... fields) {
+        QuerySpec<T> spec = getQuerySpec(entityClass, filters, null);
+        return selectFields(spec, List.of(fields), filters == null ? new Object[0] : spec.getValues(filters));
+    }
+
+    /**
+     * Selects some fields of the entities of a compiled query, without loading the entities.
+     *
+     * @param spec   the query.
+     * @param fields the names of the fields to select.
+     * @param values the values of the filtered fields of the query, in order.
+     * @return a row per matching entity, with the values of the fields in the given order, in the order of the query.
+     * @throws IllegalArgumentException if a field name is invalid, or if the number of values does not match the number of filtered fields.
+     */
+    public List<Object[]> selectFields(QuerySpec<?> spec, List<String> fields, Object... values) {
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be selected");
+        }
+
         try (Session session = sessionFactory.openSession()) {
-            T entity = session.find(entityClass, id.toString());
-            return entity != null;
+            return createQuery(session, spec, spec.getHql(fields), Object[].class, values).getResultList();
         }
     }
 
     /**
      * Executes arbitrary work inside a transaction and returns a result.
+     * <p>
+     * The work is not coordinated with the write-behind buffer : a pending write of {@link #insertLater} on an entity changed
+     * by the work is still flushed afterwards, over the change. Flush the buffer first with {@code getWriteBehindBuffer().flush()}
+     * when the work changes entities that are also written with {@link #insertLater}.
      *
      * @param work a function receiving a {@link Session} and returning a result.
      * @param <R>  the result type.
@@ -416,4 +1448,139 @@ public class Database {
             throw new RuntimeException("Transaction failed", e);
         }
     }
+
+    /**
+     * The key of the lane of an entity : the asynchronous operations on a same entity run one after the other.
+     */
+    private record EntityKey(Class<?> type, UUID id) {
+    }
+
+    /**
+     * Runs blocking work on the executor of the database.
+     */
+    private <R> CompletableFuture<R> supplyAsync(Supplier<R> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, asyncExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Runs blocking work on the lane of an entity, after every operation previously submitted for the same entity.
+     */
+    private <R> CompletableFuture<R> supplyOrdered(Class<?> entityClass, UUID id, Supplier<R> work) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+
+        try {
+            entityLanes.execute(new EntityKey(entityClass, id), () -> {
+                try {
+                    future.complete(work.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e); // The database is closed
+        }
+
+        return future;
+    }
+
+    /**
+     * Runs any blocking operation of this database asynchronously, such as {@code db.async(d -> d.selectPaged(User.class, 0, 10))}.
+     * It is not ordered with the other asynchronous operations.
+     *
+     * @param work the operation.
+     * @param <R>  the result type.
+     * @return a future completed with the result of the operation, or exceptionally with its error.
+     */
+    public <R> CompletableFuture<R> async(Function<Database, R> work) {
+        return supplyAsync(() -> work.apply(this));
+    }
+
+    /**
+     * Asynchronous version of {@link #selectById}. It runs after the asynchronous writes previously submitted for the same entity.
+     */
+    public <T extends HibernateEntity> CompletableFuture<Optional<T>> selectByIdAsync(Class<T> entityClass, UUID id) {
+        return supplyOrdered(entityClass, id, () -> selectById(entityClass, id));
+    }
+
+    /**
+     * Asynchronous version of {@link #existsById}. It runs after the asynchronous writes previously submitted for the same entity.
+     */
+    public <T extends HibernateEntity> CompletableFuture<Boolean> existsByIdAsync(Class<T> entityClass, UUID id) {
+        return supplyOrdered(entityClass, id, () -> existsById(entityClass, id));
+    }
+
+    /**
+     * Asynchronous version of {@link #selectWhere}.
+     */
+    public <T extends HibernateEntity> CompletableFuture<Set<T>> selectWhereAsync(Class<T> entityClass, Map<String, Object> fieldValues) {
+        return supplyAsync(() -> selectWhere(entityClass, fieldValues));
+    }
+
+    /**
+     * Asynchronous version of {@link #selectAll}.
+     */
+    public <T extends HibernateEntity> CompletableFuture<Set<T>> selectAllAsync(Class<T> entityClass) {
+        return supplyAsync(() -> selectAll(entityClass));
+    }
+
+    /**
+     * Asynchronous version of {@link #count}.
+     */
+    public <T extends HibernateEntity> CompletableFuture<Long> countAsync(Class<T> entityClass) {
+        return supplyAsync(() -> count(entityClass));
+    }
+
+    /**
+     * Asynchronous version of {@link #insert}. The asynchronous writes of a same entity are applied in the order they were submitted.
+     *
+     * @throws IllegalArgumentException if entity is null.
+     */
+    public <T extends HibernateEntity> CompletableFuture<Void> insertAsync(T entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("Entity cannot be null");
+        }
+
+        return supplyOrdered(entity.getClass(), entity.getId(), () -> {
+            insert(entity);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #deleteById}. The asynchronous writes of a same entity are applied in the order they were submitted.
+     */
+    public <T extends HibernateEntity> CompletableFuture<Boolean> deleteByIdAsync(Class<T> entityClass, UUID id) {
+        return supplyOrdered(entityClass, id, () -> deleteById(entityClass, id));
+    }
+
+    /**
+     * Asynchronous version of {@link #insertAll}. It is not ordered with the asynchronous writes of single entities.
+     */
+    public <T extends HibernateEntity> CompletableFuture<Void> insertAllAsync(Collection<T> entities) {
+        return supplyAsync(() -> {
+            insertAll(entities);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #updateAll}. It is not ordered with the asynchronous writes of single entities.
+     */
+    public <T extends HibernateEntity> CompletableFuture<Void> updateAllAsync(Collection<T> entities) {
+        return supplyAsync(() -> {
+            updateAll(entities);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronous version of {@link #doInTransaction}. It is not ordered with the other asynchronous operations.
+     */
+    public <R> CompletableFuture<R> doInTransactionAsync(Function<Session, R> work) {
+        return supplyAsync(() -> doInTransaction(work));
+    }
 }
@@ -0,0 +1,163 @@
+package fr.dtn.javacord.database;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The entities of a class kept in memory by id, for a limited time.
+ * <p>
+ * A read that started before a write of the same class must not cache the value it read, as it may be outdated :
+ * every invalidation increments a counter, and a value is only cached if the counter did not change during the read.
+ *
+ * @param <T> the type of the entities.
+ */
+public class EntityCache<T extends HibernateEntity> {
+    private record Entry<T>(T entity, long expiresAt) {
+    }
+
+    private final long ttl;
+    private final int maxSize;
+    private final ConcurrentHashMap<UUID, Entry<T>> entries;
+    private final AtomicLong invalidations;
+    private final ReentrantLock evictionLock;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * @param ttl     how long an entity is kept.
+     * @param maxSize the maximum number of entities kept.
+     */
+    public EntityCache(Duration ttl, int maxSize) {
+        this.ttl = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>();
+        this.invalidations = new AtomicLong();
+        this.evictionLock = new ReentrantLock();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * @param id the id of an entity.
+     * @return the cached entity, or null if it is not cached or expired.
+     */
+    public T get(UUID id) {
+        Entry<T> entry = entries.get(id);
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (System.nanoTime() - entry.expiresAt() > 0) {
+            entries.remove(id, entry);
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.entity();
+    }
+
+    /**
+     * @return the stamp to give to {@link #put(UUID, HibernateEntity, long)}, taken before reading the entity from the database.
+     */
+    long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Caches an entity read from the database, unless an entity of the class was written since the read started.
+     *
+     * @param stamp the stamp taken before the read.
+     */
+    void put(UUID id, T entity, long stamp) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+
+        entries.put(id, new Entry<>(entity, System.nanoTime() + ttl));
+
+        // An invalidation happened during the read : the entity may be outdated
+        if (invalidations.get() != stamp) {
+            entries.remove(id);
+        }
+    }
+
+    /**
+     * Removes the expired entities, then the oldest tenth of the entities if the cache is still full.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+
+        try {
+            evictExpired();
+
+            if (entries.size() < maxSize) {
+                return;
+            }
+
+            List<Map.Entry<UUID, Entry<T>>> snapshot = new ArrayList<>(entries.entrySet());
+            snapshot.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAt()));
+
+            int toEvict = Math.min(snapshot.size(), Math.max(1, maxSize / 10));
+
+            for (int i = 0; i < toEvict; i++) {
+                entries.remove(snapshot.get(i).getKey(), snapshot.get(i).getValue());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes an entity, after it was written or deleted.
+     */
+    public void invalidate(UUID id) {
+        invalidations.incrementAndGet();
+        entries.remove(id);
+    }
+
+    /**
+     * Removes every entity.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Removes the expired entities.
+     */
+    public void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.expiresAt() > 0);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses();
+    }
+}
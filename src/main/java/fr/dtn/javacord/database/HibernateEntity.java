@@ -3,29 +3,58 @@ package fr.dtn.javacord.database;
 import jakarta.persistence.Column;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
-import jakarta.persistence.PrePersist;
+import org.hibernate.annotations.JdbcTypeCode;
 
 import java.util.UUID;
 
+/**
+ * The base class of the entities of a {@link Database}, identified by a UUID.
+ * <p>
+ * How the id is stored depends on the {@link IdMode} of the database : the entities are not affected, as the id is
+ * always held as a {@link UUID}. The other {@code UUID} fields of the entities are not affected by the mode either.
+ */
 @MappedSuperclass
 public abstract class HibernateEntity {
+    /**
+     * The JDBC type code of the id, unused by JDBC and Hibernate, bound to the type of the mode by {@link IdTypeContributor}.
+     */
+    static final int ID_JDBC_TYPE = 19_011;
+
+    private static volatile Boolean timeOrderedIds = null;
+
+    /**
+     * Makes the new entities use time-ordered (version 7) UUIDs instead of random ones.
+     * <p>
+     * The setting is global to the process, as the id is given when an entity is constructed, before it is bound to any database :
+     * each {@link Database} sets it when it is created, so the last one created applies to the entities of every database,
+     * and the entities constructed before the first database is created have random ids.
+     *
+     * @return the previous value, or null if no database had set it yet.
+     */
+    static Boolean setTimeOrderedIds(boolean timeOrdered) {
+        Boolean previous = timeOrderedIds;
+        timeOrderedIds = timeOrdered;
+        return previous;
+    }
+
     @Id
+    @JdbcTypeCode(ID_JDBC_TYPE)
     @Column(name = "id", nullable = false, updatable = false, unique = true)
-    private String id;
+    private UUID id;
 
     public HibernateEntity() {
-        this.id = UUID.randomUUID().toString();
+        this.id = Boolean.TRUE.equals(timeOrderedIds) ? TimeOrderedUuids.next() : UUID.randomUUID();
     }
 
     public UUID getId() {
-        return UUID.fromString(id);
+        return id;
     }
 
     protected void setId(String id) {
-        this.id = id;
+        this.id = UUID.fromString(id);
     }
 
     protected void setId(UUID uuid) {
-        this.id = uuid.toString();
+        this.id = uuid;
     }
 }
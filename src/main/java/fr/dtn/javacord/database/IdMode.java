@@ -0,0 +1,17 @@
+package fr.dtn.javacord.database;
+
+/**
+ * The way the ids of the {@link HibernateEntity} instances are stored in the database.
+ */
+public enum IdMode {
+    /**
+     * Ids are stored as 36-character strings, the format of the tables created by the previous versions.
+     */
+    STRING,
+
+    /**
+     * Ids are stored as 16 bytes : a native 'uuid' column on PostgreSQL and H2, a 'binary(16)' column on MySQL.
+     * The indexes on the ids are more than twice smaller. Existing tables must be migrated, as their columns are not converted.
+     */
+    BINARY
+}
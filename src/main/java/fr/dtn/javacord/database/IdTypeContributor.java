@@ -0,0 +1,41 @@
+package fr.dtn.javacord.database;
+
+import org.hibernate.boot.model.TypeContributions;
+import org.hibernate.boot.model.TypeContributor;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.SqlTypes;
+import org.hibernate.type.descriptor.jdbc.JdbcType;
+import org.hibernate.type.descriptor.jdbc.UUIDJdbcType;
+import org.hibernate.type.descriptor.jdbc.VarcharJdbcType;
+import org.hibernate.type.descriptor.jdbc.spi.JdbcTypeRegistry;
+
+/**
+ * Maps the id of the {@link HibernateEntity} instances according to the {@link IdMode} of their database.
+ * <p>
+ * Only the id is concerned : it has its own JDBC type code, {@link HibernateEntity#ID_JDBC_TYPE}, so the other {@code UUID}
+ * fields of the entities keep the mapping of Hibernate. It is registered as a service, so that Hibernate runs it after the dialect
+ * has contributed its own types, and it reads the mode from the settings of the database being built.
+ */
+public class IdTypeContributor implements TypeContributor {
+    /**
+     * The setting holding the name of the {@link IdMode} of the database.
+     */
+    static final String ID_MODE_SETTING = "javacord.id_mode";
+
+    @Override
+    public void contribute(TypeContributions typeContributions, ServiceRegistry serviceRegistry) {
+        Object mode = serviceRegistry.requireService(ConfigurationService.class).getSettings().get(ID_MODE_SETTING);
+        JdbcTypeRegistry types = typeContributions.getTypeConfiguration().getJdbcTypeRegistry();
+
+        // Outside of a Javacord database, the ids are stored as strings, like in the tables created by the previous versions
+        if (!IdMode.BINARY.name().equals(mode)) {
+            types.addDescriptor(HibernateEntity.ID_JDBC_TYPE, VarcharJdbcType.INSTANCE);
+            return;
+        }
+
+        // The dialect chooses how a UUID is stored : 'uuid' on PostgreSQL and H2, 'binary(16)' on MySQL
+        JdbcType uuid = types.findDescriptor(SqlTypes.UUID);
+        types.addDescriptor(HibernateEntity.ID_JDBC_TYPE, uuid == null ? UUIDJdbcType.INSTANCE : uuid);
+    }
+}
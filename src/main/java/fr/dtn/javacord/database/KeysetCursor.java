@@ -0,0 +1,142 @@
+package fr.dtn.javacord.database;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * The position of the last entity of a page, from which the next page starts : the value of the sort field of the entity,
+ * and its id to order the entities with the same value.
+ * <p>
+ * A cursor is encoded as '&lt;value&gt;~&lt;id&gt;', with integers in base 36 and the id in 22 base64url characters,
+ * without ':' so that it fits in the payload of a stateless button.
+ *
+ * @param value the encoded value of the sort field.
+ * @param id    the id of the entity.
+ */
+public record KeysetCursor(String value, UUID id) {
+    private static final char SEPARATOR = '~';
+
+    /**
+     * @param value the value of the sort field of the last entity of a page.
+     * @param id    the id of the last entity of a page.
+     * @return the cursor.
+     */
+    public static KeysetCursor of(Object value, UUID id) {
+        if (value == null) {
+            throw new IllegalArgumentException("The sort field of a keyset pagination cannot be null");
+        }
+
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return new KeysetCursor(Long.toString(((Number) value).longValue(), Character.MAX_RADIX), id);
+        }
+
+        String text = value instanceof Enum<?> constant ? constant.name() : value.toString();
+        StringBuilder escaped = new StringBuilder(text.length());
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            switch (c) {
+                case '%' -> escaped.append("%25");
+                case ':' -> escaped.append("%3A");
+                case SEPARATOR -> escaped.append("%7E");
+                default -> escaped.append(c);
+            }
+        }
+
+        return new KeysetCursor(escaped.toString(), id);
+    }
+
+    /**
+     * @param encoded a cursor encoded by {@link #encode()}.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static KeysetCursor decode(String encoded) {
+        int separator = encoded.lastIndexOf(SEPARATOR);
+
+        if (separator == -1) {
+            throw new IllegalArgumentException("Malformed cursor : '" + encoded + "'");
+        }
+
+        byte[] bytes = Base64.getUrlDecoder().decode(encoded.substring(separator + 1));
+
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("Malformed cursor : '" + encoded + "'");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new KeysetCursor(encoded.substring(0, separator), new UUID(buffer.getLong(), buffer.getLong()));
+    }
+
+    /**
+     * @return the cursor, as a compact text.
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+
+        return value + SEPARATOR + Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    private String unescape() {
+        if (value.indexOf('%') == -1) {
+            return value;
+        }
+
+        StringBuilder text = new StringBuilder(value.length());
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == '%' && i + 2 < value.length()) {
+                text.append((char) Integer.parseInt(value, i + 1, i + 3, 16));
+                i += 2;
+            } else {
+                text.append(c);
+            }
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * @param type the type of the sort field.
+     * @return the value of the sort field.
+     * @throws IllegalArgumentException if the value cannot be read as the given type.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Object getValue(Class<?> type) {
+        try {
+            if (type == Long.class || type == long.class) return Long.parseLong(value, Character.MAX_RADIX);
+            if (type == Integer.class || type == int.class) return Integer.parseInt(value, Character.MAX_RADIX);
+            if (type == Short.class || type == short.class) return Short.parseShort(value, Character.MAX_RADIX);
+            if (type == Byte.class || type == byte.class) return Byte.parseByte(value, Character.MAX_RADIX);
+
+            String text = unescape();
+
+            if (type == String.class) return text;
+            if (type == Double.class || type == double.class) return Double.parseDouble(text);
+            if (type == Float.class || type == float.class) return Float.parseFloat(text);
+            if (type == BigDecimal.class) return new BigDecimal(text);
+            if (type == Boolean.class || type == boolean.class) return Boolean.parseBoolean(text);
+            if (type == UUID.class) return UUID.fromString(text);
+            if (type == Instant.class) return Instant.parse(text);
+            if (type == LocalDate.class) return LocalDate.parse(text);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(text);
+            if (type == OffsetDateTime.class) return OffsetDateTime.parse(text);
+            if (type.isEnum()) return Enum.valueOf((Class<? extends Enum>) type, text);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("The cursor value '" + value + "' is not a valid " + type.getSimpleName(), e);
+        }
+
+        throw new IllegalArgumentException("Keyset pagination does not support sort fields of type " + type.getName());
+    }
+}
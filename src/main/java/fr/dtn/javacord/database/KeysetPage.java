@@ -0,0 +1,16 @@
+package fr.dtn.javacord.database;
+
+import java.util.List;
+
+/**
+ * A page of entities selected by keyset pagination.
+ *
+ * @param entities the entities of the page, in order.
+ * @param next     the cursor of the next page, or null if this page is the last one.
+ * @param <T>      the type of the entities.
+ */
+public record KeysetPage<T extends HibernateEntity>(List<T> entities, KeysetCursor next) {
+    public boolean hasNext() {
+        return next != null;
+    }
+}
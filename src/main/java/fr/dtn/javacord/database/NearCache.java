@@ -0,0 +1,29 @@
+package fr.dtn.javacord.database;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps the entities of the annotated class in memory once they are selected by id,
+ * so that {@link Database#selectById} and {@link Database#existsById} do not query the database again.
+ * <p>
+ * Cached entities are shared between the callers : they must be treated as read-only, or saved with {@link Database#insert}
+ * right after being modified. Writes made through {@link Database#doInTransaction} must be followed by {@link Database#invalidate}.
+ * <p>
+ * The values can be overridden by a '[database.cache.&lt;EntityName&gt;]' section of the configuration.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface NearCache {
+    /**
+     * @return the number of seconds during which a selected entity is kept.
+     */
+    long ttl() default 60;
+
+    /**
+     * @return the maximum number of entities kept.
+     */
+    int maxSize() default 10000;
+}
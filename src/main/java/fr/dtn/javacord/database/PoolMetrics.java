@@ -0,0 +1,110 @@
+package fr.dtn.javacord.database;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of the connection pool of a {@link Database} : the time spent waiting for a connection,
+ * and the number of active, idle and awaited connections.
+ */
+public class PoolMetrics implements MetricsTrackerFactory, IMetricsTracker {
+    private final LongAdder acquisitions;
+    private final LongAdder totalWait;
+    private final AtomicLong maxWait;
+    private final LongAdder timeouts;
+
+    private volatile HikariPoolMXBean pool;
+
+    public PoolMetrics() {
+        this.acquisitions = new LongAdder();
+        this.totalWait = new LongAdder();
+        this.maxWait = new AtomicLong();
+        this.timeouts = new LongAdder();
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquisitions.increment();
+        totalWait.add(elapsedAcquiredNanos);
+        maxWait.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    void setPool(HikariPoolMXBean pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the number of connections taken from the pool.
+     */
+    public long getAcquisitions() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * @return the average time spent waiting for a connection.
+     */
+    public Duration getAverageWait() {
+        long acquisitions = this.acquisitions.sum();
+        return acquisitions == 0 ? Duration.ZERO : Duration.ofNanos(totalWait.sum() / acquisitions);
+    }
+
+    /**
+     * @return the longest time spent waiting for a connection.
+     */
+    public Duration getMaxWait() {
+        return Duration.ofNanos(maxWait.get());
+    }
+
+    /**
+     * @return the number of times no connection was available before the connection timeout.
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return the number of connections currently in use.
+     */
+    public int getActiveConnections() {
+        HikariPoolMXBean pool = this.pool;
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    /**
+     * @return the number of open connections that are not in use.
+     */
+    public int getIdleConnections() {
+        HikariPoolMXBean pool = this.pool;
+        return pool == null ? 0 : pool.getIdleConnections();
+    }
+
+    /**
+     * @return the number of threads waiting for a connection.
+     */
+    public int getPendingThreads() {
+        HikariPoolMXBean pool = this.pool;
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+
+    @Override
+    public String toString() {
+        return "active=" + getActiveConnections() + ", idle=" + getIdleConnections() + ", pending=" + getPendingThreads()
+                + ", averageWait=" + getAverageWait().toMillis() + "ms, maxWait=" + getMaxWait().toMillis() + "ms, timeouts=" + getTimeouts();
+    }
+}
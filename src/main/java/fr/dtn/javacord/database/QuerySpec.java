@@ -0,0 +1,178 @@
+package fr.dtn.javacord.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A query selecting the entities whose fields are equal to given values, sorted by some fields, compiled once to HQL.
+ * <p>
+ * The values are bound as parameters : a spec is built once, for example as a constant, and run many times with
+ * {@link Database#select(QuerySpec, Object...)}. Hibernate then reuses the plan of the query instead of interpreting it again.
+ * <pre>
+ *     static final QuerySpec&lt;Member&gt; TOP_MEMBERS = QuerySpec.of(Member.class)
+ *             .where("guildId")
+ *             .orderBy("xp", false)
+ *             .build();
+ *
+ *     List&lt;Member&gt; top = database.selectPaged(TOP_MEMBERS, 0, 10, guildId);
+ * </pre>
+ *
+ * @param <T> the type of the entities.
+ */
+public final class QuerySpec<T extends HibernateEntity> {
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    /**
+     * A field the entities are sorted by.
+     */
+    public record Order(String field, boolean ascending) {
+    }
+
+    private final Class<T> entityClass;
+    private final List<String> filterFields;
+    private final List<Order> sortFields;
+    private final String hql;
+
+    private QuerySpec(Class<T> entityClass, List<String> filterFields, List<Order> sortFields) {
+        this.entityClass = entityClass;
+        this.filterFields = List.copyOf(filterFields);
+        this.sortFields = List.copyOf(sortFields);
+        this.hql = toHql();
+    }
+
+    /**
+     * @param entityClass the entity class type.
+     * @return a builder of a query on the entities of the class.
+     */
+    public static <T extends HibernateEntity> Builder<T> of(Class<T> entityClass) {
+        return new Builder<>(entityClass);
+    }
+
+    /**
+     * Checks that a field name can be written in a query : the names are part of the HQL, unlike the values.
+     *
+     * @throws IllegalArgumentException if the name is not a Java identifier.
+     */
+    private static String checkField(String field) {
+        if (field == null || !IDENTIFIER.matcher(field).matches()) {
+            throw new IllegalArgumentException("Invalid field name : '" + field + "'");
+        }
+
+        return field;
+    }
+
+    private String toHql() {
+        StringBuilder hql = new StringBuilder("from ").append(entityClass.getName()).append(" e");
+
+        for (int i = 0; i < filterFields.size(); i++) {
+            hql.append(i == 0 ? " where " : " and ").append("e.").append(filterFields.get(i)).append(" = :p").append(i);
+        }
+
+        for (int i = 0; i < sortFields.size(); i++) {
+            Order order = sortFields.get(i);
+            hql.append(i == 0 ? " order by " : ", ").append("e.").append(order.field()).append(order.ascending() ? " asc" : " desc");
+        }
+
+        return hql.toString();
+    }
+
+    /**
+     * @param fields the names of the fields to select.
+     * @return the HQL of the query selecting only the given fields of the entities, instead of the entities.
+     */
+    String getHql(List<String> fields) {
+        StringBuilder select = new StringBuilder("select ");
+
+        for (int i = 0; i < fields.size(); i++) {
+            select.append(i == 0 ? "" : ", ").append("e.").append(checkField(fields.get(i)));
+        }
+
+        return select.append(' ').append(hql).toString();
+    }
+
+    /**
+     * Orders the values of a map of field names and values as the parameters of the query.
+     *
+     * @throws IllegalArgumentException if a filtered field is missing from the map.
+     */
+    Object[] getValues(Map<String, Object> filters) {
+        Object[] values = new Object[filterFields.size()];
+
+        for (int i = 0; i < values.length; i++) {
+            String field = filterFields.get(i);
+
+            if (!filters.containsKey(field)) {
+                throw new IllegalArgumentException("Missing value for field '" + field + "'");
+            }
+
+            values[i] = filters.get(field);
+        }
+
+        return values;
+    }
+
+    public Class<T> getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * @return the filtered fields, in the order of their values.
+     */
+    public List<String> getFilterFields() {
+        return filterFields;
+    }
+
+    public List<Order> getSortFields() {
+        return sortFields;
+    }
+
+    /**
+     * @return the HQL of the query, whose parameters are named 'p0', 'p1'... in the order of the filtered fields.
+     */
+    public String getHql() {
+        return hql;
+    }
+
+    @Override
+    public String toString() {
+        return hql;
+    }
+
+    public static class Builder<T extends HibernateEntity> {
+        private final Class<T> entityClass;
+        private final List<String> filterFields;
+        private final List<Order> sortFields;
+
+        private Builder(Class<T> entityClass) {
+            this.entityClass = entityClass;
+            this.filterFields = new ArrayList<>();
+            this.sortFields = new ArrayList<>();
+        }
+
+        /**
+         * Adds a field that must be equal to the next value given when running the query.
+         *
+         * @throws IllegalArgumentException if the name is not a valid field name.
+         */
+        public Builder<T> where(String field) {
+            filterFields.add(checkField(field));
+            return this;
+        }
+
+        /**
+         * Adds a field the entities are sorted by, after the previous ones.
+         *
+         * @throws IllegalArgumentException if the name is not a valid field name.
+         */
+        public Builder<T> orderBy(String field, boolean ascending) {
+            sortFields.add(new Order(checkField(field), ascending));
+            return this;
+        }
+
+        public QuerySpec<T> build() {
+            return new QuerySpec<>(entityClass, filterFields, sortFields);
+        }
+    }
+}
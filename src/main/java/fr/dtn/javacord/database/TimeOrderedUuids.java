@@ -0,0 +1,34 @@
+package fr.dtn.javacord.database;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates version 7 UUIDs : they start with the current time in milliseconds, so new ids are appended at the end of
+ * the indexes instead of being spread over the whole index.
+ * <p>
+ * The 12 bits following the time are a counter, so the ids generated by this process are strictly increasing,
+ * even within a same millisecond.
+ */
+final class TimeOrderedUuids {
+    private static final SecureRandom random = new SecureRandom();
+
+    /**
+     * The time of the last id in milliseconds, shifted by 12 bits, plus its counter.
+     */
+    private static final AtomicLong last = new AtomicLong();
+
+    private TimeOrderedUuids() {
+    }
+
+    static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long stamp = last.updateAndGet(previous -> Math.max(previous + 1, now));
+
+        long mostSignificantBits = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long leastSignificantBits = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
@@ -0,0 +1,402 @@
+package fr.dtn.javacord.database;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The entities written with {@link Database#insertLater}, kept in memory until they are written to the database.
+ * <p>
+ * A single write is kept per entity : writing an entity again before it is flushed replaces the pending write.
+ * The buffer is flushed in a single transaction at a fixed interval, and as soon as it holds {@link #getMaxSize()} entities.
+ * An entity stays in the buffer until the transaction writing it is committed, so reading it by id always sees its last value,
+ * and a flush that fails is retried with the next one.
+ * <p>
+ * After {@value #ISOLATE_AFTER} failed flushes in a row, the entities are written one by one, so that an entity that can never be
+ * written does not hold back the others : it is dropped, with an error log, once it has failed {@value #MAX_FAILURES} times
+ * while other entities were written. The buffer holds at most {@link #getCapacity()} entities, the next writes are made directly.
+ */
+public class WriteBehindBuffer {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * The number of failed flushes in a row after which the entities are written one by one.
+     */
+    private static final int ISOLATE_AFTER = 3;
+
+    /**
+     * The number of times an entity can fail to be written alone before it is dropped.
+     */
+    private static final int MAX_FAILURES = 3;
+
+    private record Key(Class<?> type, UUID id) {
+    }
+
+    /**
+     * A pending write. Compared by identity : a write replaced during a flush is not removed by the flush.
+     */
+    private static final class Pending {
+        private final HibernateEntity entity;
+        private final long bufferedAt;
+        private volatile int failures;
+
+        private Pending(HibernateEntity entity, long bufferedAt, int failures) {
+            this.entity = entity;
+            this.bufferedAt = bufferedAt;
+            this.failures = failures;
+        }
+    }
+
+    private final Duration flushInterval;
+    private final int maxSize;
+    private final int capacity;
+    private final Consumer<List<HibernateEntity>> writer;
+    private final Executor executor;
+    private final ConcurrentHashMap<Key, Pending> pending;
+    private final ReentrantLock flushLock;
+    private final AtomicBoolean flushRequested;
+    private final LongAdder writes;
+    private final LongAdder coalesced;
+    private final LongAdder flushes;
+    private final LongAdder failedFlushes;
+    private final LongAdder flushedEntities;
+    private final LongAdder droppedEntities;
+    private final LongAdder overflowWrites;
+    private volatile int consecutiveFailures;
+    private volatile long lastFlushLag;
+
+    /**
+     * @param flushInterval how long a write waits at most before being flushed, if the flushes succeed.
+     * @param maxSize       the number of entities that triggers a flush.
+     * @param capacity      the maximum number of entities kept in the buffer.
+     * @param writer        writes the entities in a single transaction, and throws if it fails.
+     * @param executor      runs the flushes triggered by the size of the buffer.
+     */
+    WriteBehindBuffer(Duration flushInterval, int maxSize, int capacity, Consumer<List<HibernateEntity>> writer, Executor executor) {
+        this.flushInterval = flushInterval;
+        this.maxSize = maxSize;
+        this.capacity = capacity;
+        this.writer = writer;
+        this.executor = executor;
+        this.pending = new ConcurrentHashMap<>();
+        this.flushLock = new ReentrantLock();
+        this.flushRequested = new AtomicBoolean();
+        this.writes = new LongAdder();
+        this.coalesced = new LongAdder();
+        this.flushes = new LongAdder();
+        this.failedFlushes = new LongAdder();
+        this.flushedEntities = new LongAdder();
+        this.droppedEntities = new LongAdder();
+        this.overflowWrites = new LongAdder();
+    }
+
+    /**
+     * Buffers the write of an entity, replacing its pending write if there is one.
+     *
+     * @return false if the buffer is full and the entity has no pending write : it must then be written directly.
+     */
+    boolean add(HibernateEntity entity) {
+        long now = System.nanoTime();
+        Key key = new Key(entity.getClass(), entity.getId());
+
+        if (pending.size() >= capacity && !pending.containsKey(key)) {
+            overflowWrites.increment();
+            return false;
+        }
+
+        // The time of the first pending write is kept, so the flush lag tells how long a change really waited,
+        // and so are its failures, which usually come from the entity itself rather than from its values
+        pending.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return new Pending(entity, now, 0);
+            }
+
+            coalesced.increment();
+            return new Pending(entity, existing.bufferedAt, existing.failures);
+        });
+
+        writes.increment();
+
+        // While the flushes fail, only the scheduled ones retry, instead of one per write once the buffer is full
+        if (consecutiveFailures == 0 && pending.size() >= maxSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    flushRequested.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false); // The database is closing : the final flush writes the entity
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the pending write of an entity, or null if there is none.
+     */
+    <T extends HibernateEntity> T get(Class<T> entityClass, UUID id) {
+        Pending write = pending.get(new Key(entityClass, id));
+        return write == null ? null : entityClass.cast(write.entity);
+    }
+
+    /**
+     * Writes or deletes an entity directly, then drops its pending write once the direct write succeeded.
+     * <p>
+     * If the entity has a pending write, the direct write waits for the flush in progress and holds back the next ones :
+     * otherwise a flush could write the pending value over the direct write, or bring back a deleted entity.
+     * If the direct write fails, the pending write is kept.
+     *
+     * @param write the direct write, which throws if it fails.
+     * @return the result of the direct write.
+     */
+    <R> R writeThrough(Class<?> entityClass, UUID id, Supplier<R> write) {
+        return writeThrough(List.of(new Key(entityClass, id)), write);
+    }
+
+    /**
+     * Writes or deletes many entities directly, then drops their pending writes once the direct write succeeded.
+     *
+     * @see #writeThrough(Class, UUID, Supplier)
+     */
+    <R> R writeThrough(Collection<? extends HibernateEntity> entities, Supplier<R> write) {
+        List<Key> keys = new ArrayList<>(entities.size());
+
+        for (HibernateEntity entity : entities) {
+            keys.add(new Key(entity.getClass(), entity.getId()));
+        }
+
+        return writeThrough(keys, write);
+    }
+
+    private <R> R writeThrough(List<Key> keys, Supplier<R> write) {
+        if (keys.stream().noneMatch(pending::containsKey)) {
+            return write.get();
+        }
+
+        flushLock.lock();
+
+        try {
+            // Read again under the lock, as the flush may have written them meanwhile
+            Map<Key, Pending> existing = new HashMap<>();
+
+            for (Key key : keys) {
+                Pending buffered = pending.get(key);
+
+                if (buffered != null) {
+                    existing.put(key, buffered);
+                }
+            }
+
+            R result = write.get();
+
+            for (Map.Entry<Key, Pending> entry : existing.entrySet()) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+
+            return result;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every pending entity in a single transaction. Does nothing if the buffer is empty.
+     */
+    public void flush() {
+        flushLock.lock();
+
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<Map.Entry<Key, Pending>> snapshot = new ArrayList<>(pending.entrySet());
+            List<HibernateEntity> entities = new ArrayList<>(snapshot.size());
+            long oldest = System.nanoTime();
+
+            for (Map.Entry<Key, Pending> entry : snapshot) {
+                entities.add(entry.getValue().entity);
+                oldest = Math.min(oldest, entry.getValue().bufferedAt);
+            }
+
+            try {
+                writer.accept(entities);
+            } catch (RuntimeException e) {
+                failedFlushes.increment();
+
+                if (++consecutiveFailures < ISOLATE_AFTER) {
+                    logger.error("Failed to flush {} buffered entities, they will be written by the next flush", entities.size(), e);
+                    return;
+                }
+
+                logger.error("Failed to flush {} buffered entities {} times in a row, writing them one by one", entities.size(), consecutiveFailures, e);
+                flushOneByOne(snapshot);
+                return;
+            }
+
+            consecutiveFailures = 0;
+
+            for (Map.Entry<Key, Pending> entry : snapshot) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+
+            lastFlushLag = System.nanoTime() - oldest;
+            flushes.increment();
+            flushedEntities.add(entities.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the entities of a failed flush one by one, and drops those that keep failing while the others are written.
+     * Called with the flush lock held.
+     */
+    private void flushOneByOne(List<Map.Entry<Key, Pending>> snapshot) {
+        // The entities that failed the least are tried first, so that a failing entity does not stop the pass of the others
+        snapshot.sort(Comparator.comparingInt(entry -> entry.getValue().failures));
+
+        Map<Map.Entry<Key, Pending>, RuntimeException> failed = new LinkedHashMap<>();
+        int written = 0;
+
+        for (Map.Entry<Key, Pending> entry : snapshot) {
+            try {
+                writer.accept(List.of(entry.getValue().entity));
+                pending.remove(entry.getKey(), entry.getValue());
+                written++;
+            } catch (RuntimeException e) {
+                failed.put(entry, e);
+                entry.getValue().failures++;
+
+                // Nothing can be written : the database is most likely unreachable, so the pass is not worth going on
+                if (written == 0) {
+                    logger.error("Failed to write a buffered entity alone, they will be written by the next flush", e);
+                    return;
+                }
+            }
+        }
+
+        flushedEntities.add(written);
+
+        for (Map.Entry<Map.Entry<Key, Pending>, RuntimeException> failure : failed.entrySet()) {
+            Key key = failure.getKey().getKey();
+            Pending write = failure.getKey().getValue();
+
+            if (write.failures >= MAX_FAILURES && pending.remove(key, write)) {
+                droppedEntities.increment();
+                logger.error("Dropping the buffered write of {} with id={} : it failed {} times while other entities were written",
+                        key.type().getSimpleName(), key.id(), write.failures, failure.getValue());
+            } else {
+                logger.warn("Failed to write the buffered {} with id={}, it will be retried by the next flush", key.type().getSimpleName(), key.id());
+            }
+        }
+    }
+
+    /**
+     * @return the number of entities waiting to be written.
+     */
+    public int getDepth() {
+        return pending.size();
+    }
+
+    /**
+     * @return how long the oldest pending write has been waiting, or zero if the buffer is empty.
+     */
+    public Duration getOldestAge() {
+        long now = System.nanoTime();
+        long oldest = now;
+
+        for (Pending write : pending.values()) {
+            oldest = Math.min(oldest, write.bufferedAt);
+        }
+
+        return Duration.ofNanos(now - oldest);
+    }
+
+    /**
+     * @return how long the oldest write of the last successful flush waited before being committed.
+     */
+    public Duration getLastFlushLag() {
+        return Duration.ofNanos(lastFlushLag);
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the maximum number of entities kept in the buffer : beyond it, the writes are made directly.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of writes buffered.
+     */
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    /**
+     * @return the number of writes that replaced a pending write of the same entity, and thus cost no statement.
+     */
+    public long getCoalescedWrites() {
+        return coalesced.sum();
+    }
+
+    public long getFlushes() {
+        return flushes.sum();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    public long getFlushedEntities() {
+        return flushedEntities.sum();
+    }
+
+    /**
+     * @return the number of entities dropped because they could not be written.
+     */
+    public long getDroppedEntities() {
+        return droppedEntities.sum();
+    }
+
+    /**
+     * @return the number of writes made directly because the buffer was full.
+     */
+    public long getOverflowWrites() {
+        return overflowWrites.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "depth=" + getDepth() + ", writes=" + getWrites() + ", coalesced=" + getCoalescedWrites()
+                + ", flushes=" + getFlushes() + ", failedFlushes=" + getFailedFlushes() + ", dropped=" + getDroppedEntities()
+                + ", overflow=" + getOverflowWrites() + ", lastFlushLag=" + getLastFlushLag().toMillis() + "ms";
+    }
+}
@@ -0,0 +1,97 @@
+package fr.dtn.javacord.database.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the names of the {@code @Entity} classes extending {@code HibernateEntity} to 'META-INF/javacord/entities' at compile time,
+ * so that the {@code Database} finds them without scanning the classpath.
+ * <p>
+ * It is registered as a service : Maven runs it when the bot is compiled with Javacord on its classpath,
+ * Gradle when Javacord is also declared as an {@code annotationProcessor} dependency.
+ */
+@SupportedAnnotationTypes("jakarta.persistence.Entity")
+public class EntityIndexProcessor extends AbstractProcessor {
+    /**
+     * The resource listing the entity classes, one binary class name per line.
+     */
+    public static final String INDEX = "META-INF/javacord/entities";
+
+    private static final String HIBERNATE_ENTITY = "fr.dtn.javacord.database.HibernateEntity";
+
+    private final Set<String> entities = new TreeSet<>();
+    private final List<Element> origins = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        if (round.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        TypeElement base = processingEnv.getElementUtils().getTypeElement(HIBERNATE_ENTITY);
+
+        if (base == null) {
+            return false;
+        }
+
+        TypeMirror baseType = processingEnv.getTypeUtils().erasure(base.asType());
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    continue;
+                }
+
+                TypeMirror type = processingEnv.getTypeUtils().erasure(element.asType());
+
+                if (processingEnv.getTypeUtils().isSubtype(type, baseType)) {
+                    entities.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                    origins.add(element);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void writeIndex() {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX, origins.toArray(new Element[0]));
+
+            try (Writer writer = file.openWriter()) {
+                for (String entity : entities) {
+                    writer.write(entity);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the entity index '" + INDEX + "' : " + e.getMessage());
+        }
+    }
+}
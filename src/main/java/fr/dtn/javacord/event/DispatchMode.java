@@ -0,0 +1,21 @@
+package fr.dtn.javacord.event;
+
+/**
+ * The way events are handed to the event handlers, commands and buttons of a bot.
+ */
+public enum DispatchMode {
+    /**
+     * Events are handled on the JDA shard thread that received them.
+     */
+    INLINE,
+
+    /**
+     * Events are handled on a bounded pool of platform threads.
+     */
+    POOL,
+
+    /**
+     * Events are handled on virtual threads. Requires Java 21 or later, falls back to {@link #POOL} otherwise.
+     */
+    VIRTUAL
+}
@@ -0,0 +1,246 @@
+package fr.dtn.javacord.event;
+
+import fr.dtn.javacord.concurrent.KeyedExecutor;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.channel.GenericChannelEvent;
+import net.dv8tion.jda.api.events.guild.GenericGuildEvent;
+import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
+import net.dv8tion.jda.api.events.message.GenericMessageEvent;
+import net.dv8tion.jda.api.events.role.GenericRoleEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link EventListener} that hands the events received from JDA to another listener, following a {@link DispatchMode}.
+ * <p>
+ * With {@link DispatchMode#INLINE}, the events are handled directly on the shard thread.
+ * Otherwise, the events are handled on worker threads : the events of a same guild are handled one after the other
+ * in the order they were received, while the events of different guilds are handled in parallel.
+ * Events that are not related to a guild are ordered per shard.
+ * <p>
+ * The number of events waiting for a worker thread is bounded per event type by an {@link EventQueue}.
+ */
+public class EventDispatcher implements EventListener {
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * @return true if this Java version provides virtual threads, required by {@link DispatchMode#VIRTUAL}.
+     */
+    public static boolean supportsVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ExecutorService createExecutor(DispatchMode mode, int threads) {
+        if (mode == DispatchMode.VIRTUAL) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual threads are not available on this Java version, using a pool of {} threads instead", threads);
+            }
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "javacord-dispatch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the key used to order the given event : the id of its guild, or a negative key specific to its shard.
+     *
+     * @param event the event.
+     * @return the ordering key of the event.
+     */
+    private static long getOrderingKey(GenericEvent event) {
+        Guild guild = null;
+
+        if (event instanceof GenericGuildEvent guildEvent) {
+            guild = guildEvent.getGuild();
+        } else if (event instanceof GenericMessageEvent messageEvent && messageEvent.isFromGuild()) {
+            guild = messageEvent.getGuild();
+        } else if (event instanceof GenericInteractionCreateEvent interactionEvent) {
+            guild = interactionEvent.getGuild();
+        } else if (event instanceof GenericRoleEvent roleEvent) {
+            guild = roleEvent.getGuild();
+        } else if (event instanceof GenericChannelEvent channelEvent && channelEvent.isFromGuild()) {
+            guild = channelEvent.getGuild();
+        }
+
+        if (guild != null) {
+            return guild.getIdLong();
+        }
+
+        return -1L - event.getJDA().getShardInfo().getShardId();
+    }
+
+    private final DispatchMode mode;
+    private final EventListener delegate;
+    private final ExecutorService executor;
+    private final KeyedExecutor lanes;
+
+    private final int defaultCapacity;
+    private final OverflowPolicy defaultPolicy;
+    private final Map<String, EventQueue> configuredQueues;
+    private final Map<Class<?>, EventQueue> queues;
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param mode            the dispatch mode.
+     * @param threads         the number of worker threads, used by {@link DispatchMode#POOL}.
+     * @param defaultCapacity the capacity of the queues of event types that are not configured.
+     * @param defaultPolicy   the overflow policy of the queues of event types that are not configured.
+     * @param delegate        the listener that handles the events.
+     */
+    public EventDispatcher(DispatchMode mode, int threads, int defaultCapacity, OverflowPolicy defaultPolicy, EventListener delegate) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of dispatch threads must be > 0");
+        }
+        if (defaultCapacity <= 0) {
+            throw new IllegalArgumentException("The capacity of the event queues must be > 0");
+        }
+
+        this.mode = mode;
+        this.delegate = delegate;
+        this.defaultCapacity = defaultCapacity;
+        this.defaultPolicy = defaultPolicy;
+        this.configuredQueues = new ConcurrentHashMap<>();
+        this.queues = new ConcurrentHashMap<>();
+
+        if (mode == DispatchMode.INLINE) {
+            this.executor = null;
+            this.lanes = null;
+        } else {
+            this.executor = createExecutor(mode, threads);
+            this.lanes = new KeyedExecutor(executor);
+        }
+    }
+
+    @Override
+    public void onEvent(@NotNull GenericEvent event) {
+        if (lanes == null) {
+            delegate.onEvent(event);
+            return;
+        }
+
+        EventQueue queue = getQueue(event.getClass());
+        EventQueue.Task task = new EventQueue.Task(getOrderingKey(event), event);
+
+        if (queue.offer(task)) {
+            lanes.execute(task.getKey(), () -> handle(queue, task));
+        }
+    }
+
+    private void handle(EventQueue queue, EventQueue.Task task) {
+        GenericEvent event = queue.start(task);
+
+        if (event == null) {
+            return; // The event was dropped while it was pending
+        }
+
+        try {
+            delegate.onEvent(event);
+        } catch (Throwable t) {
+            logger.error("An error occurred while handling an event of type {}", event.getClass().getSimpleName(), t);
+        }
+    }
+
+    /**
+     * Sets the capacity and overflow policy of the queue of an event type.
+     * Must be called before the first event of this type is received.
+     *
+     * @param eventType the simple class name of the event type (e.g. 'GuildMemberJoinEvent').
+     * @param capacity  the maximum number of pending events of this type.
+     * @param policy    what to do with new events when the queue is full.
+     */
+    public void configureQueue(String eventType, int capacity, OverflowPolicy policy) {
+        configuredQueues.put(eventType, new EventQueue(eventType, capacity, policy));
+    }
+
+    private EventQueue getQueue(Class<?> eventClass) {
+        EventQueue queue = queues.get(eventClass);
+
+        if (queue == null) {
+            String eventType = eventClass.getSimpleName();
+            EventQueue configured = configuredQueues.get(eventType);
+
+            queue = configured != null ? configured : new EventQueue(eventType, defaultCapacity, defaultPolicy);
+
+            EventQueue existing = queues.putIfAbsent(eventClass, queue);
+
+            if (existing != null) {
+                queue = existing;
+            }
+        }
+
+        return queue;
+    }
+
+    /**
+     * @return the queues of the event types received so far, with their pending and shed event counters.
+     */
+    public Collection<EventQueue> getQueues() {
+        return mode == DispatchMode.INLINE ? List.of() : List.copyOf(queues.values());
+    }
+
+    /**
+     * @return the total number of events dropped or coalesced since the bot started.
+     */
+    public long getShedEvents() {
+        long total = 0;
+
+        for (EventQueue queue : queues.values()) {
+            total += queue.getShed();
+        }
+
+        return total;
+    }
+
+    /**
+     * Stops the worker threads, waiting for the pending events to be handled.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit    the unit of the timeout.
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(timeout, unit)) {
+                logger.warn("Some events were still being handled when the dispatcher was stopped");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public DispatchMode getMode() {
+        return mode;
+    }
+}
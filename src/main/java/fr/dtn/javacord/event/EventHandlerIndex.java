@@ -0,0 +1,151 @@
+package fr.dtn.javacord.event;
+
+import net.dv8tion.jda.api.events.GenericEvent;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable index from event classes to the {@link EventHandler} instances that handle them.
+ * <p>
+ * The event type of each handler is resolved once, when the handler is added to the index.
+ * The handlers of a concrete event class (including handlers registered for one of its supertypes,
+ * such as {@code GenericMessageEvent}) are computed on the first event of that class, then reused
+ * for every following event : dispatching an event is a single map lookup.
+ * <p>
+ * Adding a handler does not modify an index, it returns a new one.
+ */
+public final class EventHandlerIndex {
+    private static final EventHandler<?>[] NO_HANDLERS = new EventHandler<?>[0];
+
+    public static final EventHandlerIndex EMPTY = new EventHandlerIndex(new Class<?>[0], NO_HANDLERS);
+
+    /**
+     * Resolves the event type handled by the given handler, by walking its class hierarchy
+     * until the type argument of {@link EventHandler} is found.
+     *
+     * @param handler the event handler.
+     * @return the class of the events handled by the handler.
+     * @throws IllegalArgumentException if the event type cannot be determined (e.g. lambdas or raw types).
+     */
+    @SuppressWarnings("unchecked")
+    public static Class<? extends GenericEvent> resolveEventType(EventHandler<?> handler) {
+        Type resolved = resolveTypeArgument(handler.getClass());
+
+        if (resolved instanceof ParameterizedType parameterized) {
+            resolved = parameterized.getRawType();
+        }
+
+        if (!(resolved instanceof Class<?> eventType) || !GenericEvent.class.isAssignableFrom(eventType)) {
+            throw new IllegalArgumentException("Unable to determine the event type handled by " + handler.getClass().getName());
+        }
+
+        return (Class<? extends GenericEvent>) eventType;
+    }
+
+    private static Type resolveTypeArgument(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Type genericInterface : current.getGenericInterfaces()) {
+                if (genericInterface instanceof ParameterizedType parameterized && parameterized.getRawType() == EventHandler.class) {
+                    Type argument = parameterized.getActualTypeArguments()[0];
+
+                    // The argument is a type variable when declared by an abstract handler : look at the subclass binding
+                    return argument instanceof TypeVariable<?> ? resolveTypeVariable(type, current, (TypeVariable<?>) argument) : argument;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static Type resolveTypeVariable(Class<?> type, Class<?> declaringClass, TypeVariable<?> variable) {
+        for (Class<?> current = type; current != null && current != declaringClass; current = current.getSuperclass()) {
+            if (current.getGenericSuperclass() instanceof ParameterizedType parameterized
+                    && parameterized.getRawType() == declaringClass) {
+                TypeVariable<?>[] variables = declaringClass.getTypeParameters();
+
+                for (int i = 0; i < variables.length; i++) {
+                    if (variables[i].equals(variable)) {
+                        return parameterized.getActualTypeArguments()[i];
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private final Class<?>[] eventTypes;
+    private final EventHandler<?>[] handlers;
+    private final Map<Class<?>, EventHandler<?>[]> handlersByEvent;
+
+    private EventHandlerIndex(Class<?>[] eventTypes, EventHandler<?>[] handlers) {
+        this.eventTypes = eventTypes;
+        this.handlers = handlers;
+        this.handlersByEvent = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates a new index containing the handlers of this index and the given handler.
+     *
+     * @param eventType the class of the events handled by the handler.
+     * @param handler   the handler to add.
+     * @return the new index.
+     */
+    public EventHandlerIndex with(Class<? extends GenericEvent> eventType, EventHandler<?> handler) {
+        Class<?>[] newEventTypes = Arrays.copyOf(eventTypes, eventTypes.length + 1);
+        EventHandler<?>[] newHandlers = Arrays.copyOf(handlers, handlers.length + 1);
+
+        newEventTypes[eventTypes.length] = eventType;
+        newHandlers[handlers.length] = handler;
+
+        return new EventHandlerIndex(newEventTypes, newHandlers);
+    }
+
+    /**
+     * Returns the handlers of the given event class, in registration order.
+     * The returned array is shared and must not be modified.
+     *
+     * @param eventClass the concrete class of an event.
+     * @return the handlers to call for the event, possibly empty.
+     */
+    public EventHandler<?>[] getHandlers(Class<?> eventClass) {
+        EventHandler<?>[] found = handlersByEvent.get(eventClass);
+
+        if (found == null) {
+            found = resolveHandlers(eventClass);
+            handlersByEvent.putIfAbsent(eventClass, found);
+        }
+
+        return found;
+    }
+
+    private EventHandler<?>[] resolveHandlers(Class<?> eventClass) {
+        List<EventHandler<?>> found = new ArrayList<>();
+
+        for (int i = 0; i < eventTypes.length; i++) {
+            if (eventTypes[i].isAssignableFrom(eventClass)) {
+                found.add(handlers[i]);
+            }
+        }
+
+        return found.isEmpty() ? NO_HANDLERS : found.toArray(EventHandler<?>[]::new);
+    }
+
+    /**
+     * @return every handler of the index, in registration order.
+     */
+    public List<EventHandler<?>> getAllHandlers() {
+        return List.of(handlers);
+    }
+
+    public int size() {
+        return handlers.length;
+    }
+}
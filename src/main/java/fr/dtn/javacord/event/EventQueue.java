@@ -0,0 +1,152 @@
+package fr.dtn.javacord.event;
+
+import net.dv8tion.jda.api.events.GenericEvent;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the number of pending events of a given type in an {@link EventDispatcher}.
+ * <p>
+ * An event is pending from the moment it is received until a worker thread starts handling it.
+ * When the queue is full, new events are handled according to its {@link OverflowPolicy},
+ * and every event that is dropped or coalesced is counted as shed.
+ */
+public final class EventQueue {
+    private final String eventType;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final ArrayDeque<Task> pending;
+    private final LongAdder shed;
+
+    EventQueue(String eventType, int capacity, OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of the queue of " + eventType + " must be > 0");
+        }
+
+        this.eventType = eventType;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.pending = new ArrayDeque<>();
+        this.shed = new LongAdder();
+    }
+
+    /**
+     * Adds a task to the pending tasks of the queue.
+     *
+     * @param task the task to add.
+     * @return true if the task must be submitted, false if it was shed or merged into a pending task.
+     */
+    synchronized boolean offer(Task task) {
+        if (pending.size() < capacity) {
+            pending.addLast(task);
+            return true;
+        }
+
+        switch (policy) {
+            case DROP_NEWEST -> {
+                shed.increment();
+                return false;
+            }
+            case BLOCK -> {
+                try {
+                    while (pending.size() >= capacity) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    shed.increment();
+                    return false;
+                }
+
+                pending.addLast(task);
+                return true;
+            }
+            case COALESCE -> {
+                Iterator<Task> iterator = pending.descendingIterator();
+
+                while (iterator.hasNext()) {
+                    Task candidate = iterator.next();
+
+                    if (candidate.key == task.key) {
+                        candidate.event = task.event;
+                        shed.increment();
+                        return false;
+                    }
+                }
+            }
+        }
+
+        // DROP_OLDEST, or COALESCE without any pending event from the same guild
+        pending.pollFirst().cancelled = true;
+        pending.addLast(task);
+        shed.increment();
+
+        return true;
+    }
+
+    /**
+     * Removes a task from the pending tasks, as it starts running.
+     *
+     * @param task the task that starts.
+     * @return the event to handle, or null if the task was dropped.
+     */
+    synchronized GenericEvent start(Task task) {
+        if (task.cancelled) {
+            return null;
+        }
+
+        pending.removeFirstOccurrence(task);
+
+        if (policy == OverflowPolicy.BLOCK) {
+            notify();
+        }
+
+        return task.event;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the number of events waiting to be handled.
+     */
+    public synchronized int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * @return the number of events dropped or coalesced since the queue was created.
+     */
+    public long getShed() {
+        return shed.sum();
+    }
+
+    /**
+     * A pending event, which runs on the ordering lane of its guild.
+     */
+    static final class Task {
+        private final long key;
+        private GenericEvent event; // guarded by the queue
+        private boolean cancelled; // guarded by the queue
+
+        Task(long key, GenericEvent event) {
+            this.key = key;
+            this.event = event;
+        }
+
+        long getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package fr.dtn.javacord.event;
+
+/**
+ * What an {@link EventQueue} does with a new event when it already holds as many pending events as its capacity.
+ */
+public enum OverflowPolicy {
+    /**
+     * The oldest pending event of the queue is dropped to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new event is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The new event replaces the most recent pending event of the same guild, which is then handled with the new event.
+     * When no pending event comes from the same guild, the oldest pending event is dropped instead.
+     */
+    COALESCE,
+
+    /**
+     * The shard thread waits until a pending event starts being handled.
+     */
+    BLOCK
+}
@@ -0,0 +1,65 @@
+package fr.dtn.javacord.interaction;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The time taken to acknowledge the interactions of a command or a button, measured from the moment Discord created them
+ * (see {@link InteractionContext#getReceivedAt}), so that the time spent waiting to be handled is included.
+ */
+public class AckLatency {
+    private final LongAdder count;
+    private final LongAdder deferred;
+    private final LongAdder total;
+    private final AtomicLong max;
+
+    public AckLatency() {
+        this.count = new LongAdder();
+        this.deferred = new LongAdder();
+        this.total = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * @param nanos        the time taken to acknowledge the interaction.
+     * @param autoDeferred whether the interaction was deferred automatically, because it was not acknowledged in time.
+     */
+    void record(long nanos, boolean autoDeferred) {
+        count.increment();
+        total.add(nanos);
+        max.accumulateAndGet(nanos, Math::max);
+
+        if (autoDeferred) {
+            deferred.increment();
+        }
+    }
+
+    /**
+     * @return the number of acknowledged interactions.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the number of interactions that were deferred automatically.
+     */
+    public long getAutoDeferredCount() {
+        return deferred.sum();
+    }
+
+    public Duration getAverage() {
+        long count = this.count.sum();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(total.sum() / count);
+    }
+
+    public Duration getMax() {
+        return Duration.ofNanos(max.get());
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + ", autoDeferred=" + getAutoDeferredCount() + ", average=" + getAverage().toMillis() + "ms, max=" + getMax().toMillis() + "ms";
+    }
+}
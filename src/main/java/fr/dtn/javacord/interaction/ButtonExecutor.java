@@ -5,4 +5,29 @@ import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 
 public interface ButtonExecutor {
     void run(Bot bot, ButtonInteractionEvent event);
+
+    /**
+     * An executor receiving the context tracking the acknowledgement of the click : only those are deferred automatically.
+     */
+    @FunctionalInterface
+    interface WithContext extends ButtonExecutor {
+        /**
+         * Called when the button is clicked, with the context tracking the acknowledgement of the click.
+         */
+        void run(Bot bot, ButtonInteractionEvent event, InteractionContext context);
+
+        /**
+         * Runs the executor outside of the event handler of the bot, with a new interaction context.
+         */
+        @Override
+        default void run(Bot bot, ButtonInteractionEvent event) {
+            InteractionContext context = bot.createInteractionContext(event, InteractionContext.getReceivedAt(event), "button");
+
+            try {
+                run(bot, event, context);
+            } finally {
+                context.executed();
+            }
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package fr.dtn.javacord.interaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The data carried by the custom id of a stateless button, as 'jc.&lt;key&gt;:&lt;part&gt;:&lt;part&gt;...'.
+ * <p>
+ * Numbers are written in base 36 to fit as many of them as possible in the 100 characters allowed by Discord :
+ * a Discord id takes 12 or 13 characters instead of 18 or 19.
+ */
+public final class ButtonPayload {
+    public static final char SEPARATOR = ':';
+    public static final int MAX_ID_LENGTH = 100;
+
+    private static final ButtonPayload EMPTY = new ButtonPayload(new String[0]);
+
+    private final String[] parts;
+
+    private ButtonPayload(String[] parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * @param values the values of the payload : numbers (written in base 36) or texts without ':'.
+     * @return the payload.
+     * @throws IllegalArgumentException if a text contains ':', or if a value is neither a number nor a text.
+     */
+    public static ButtonPayload of(Object... values) {
+        String[] parts = new String[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] instanceof Long || values[i] instanceof Integer || values[i] instanceof Short || values[i] instanceof Byte) {
+                parts[i] = Long.toString(((Number) values[i]).longValue(), Character.MAX_RADIX);
+            } else if (values[i] instanceof String text) {
+                if (text.indexOf(SEPARATOR) != -1) {
+                    throw new IllegalArgumentException("A button payload cannot contain '" + SEPARATOR + "' : '" + text + "'");
+                }
+
+                parts[i] = text;
+            } else {
+                throw new IllegalArgumentException("A button payload can only contain integers and texts, not " + values[i]);
+            }
+        }
+
+        return new ButtonPayload(parts);
+    }
+
+    /**
+     * @param values the numbers of the payload.
+     * @return the payload.
+     */
+    public static ButtonPayload ofLongs(long... values) {
+        String[] parts = new String[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            parts[i] = Long.toString(values[i], Character.MAX_RADIX);
+        }
+
+        return new ButtonPayload(parts);
+    }
+
+    /**
+     * Reads the payload of a custom id.
+     *
+     * @param id    the custom id.
+     * @param start the index of the first character of the payload, just after the separator following the key.
+     * @return the payload.
+     */
+    public static ButtonPayload parse(String id, int start) {
+        if (start >= id.length()) {
+            return EMPTY;
+        }
+
+        List<String> parts = new ArrayList<>();
+        int end;
+
+        while ((end = id.indexOf(SEPARATOR, start)) != -1) {
+            parts.add(id.substring(start, end));
+            start = end + 1;
+        }
+
+        parts.add(id.substring(start));
+        return new ButtonPayload(parts.toArray(new String[0]));
+    }
+
+    /**
+     * @param key the key of the executor of the button.
+     * @return the custom id of the button.
+     * @throws IllegalArgumentException if the custom id is longer than what Discord allows.
+     */
+    public String toCustomId(String key) {
+        StringBuilder id = new StringBuilder(ComponentRouter.PREFIX).append(key).append(SEPARATOR);
+
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                id.append(SEPARATOR);
+            }
+
+            id.append(parts[i]);
+        }
+
+        if (id.length() > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("The custom id of a button cannot be longer than " + MAX_ID_LENGTH + " characters : '" + id + "'");
+        }
+
+        return id.toString();
+    }
+
+    public int size() {
+        return parts.length;
+    }
+
+    public String getString(int index) {
+        return parts[index];
+    }
+
+    /**
+     * @throws NumberFormatException if the part is not a number.
+     */
+    public long getLong(int index) {
+        return Long.parseLong(parts[index], Character.MAX_RADIX);
+    }
+
+    /**
+     * @throws NumberFormatException if the part is not a number, or is too large for an int.
+     */
+    public int getInt(int index) {
+        return Integer.parseInt(parts[index], Character.MAX_RADIX);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(String.valueOf(SEPARATOR), parts);
+    }
+}
@@ -0,0 +1,21 @@
+package fr.dtn.javacord.interaction;
+
+import fr.dtn.javacord.Bot;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+
+/**
+ * Handles the interactions of a component created by the bot : a button, a select menu or a modal.
+ *
+ * @param <E> the type of the interaction event.
+ */
+@FunctionalInterface
+public interface ComponentExecutor<E extends IReplyCallback> {
+    void run(Bot bot, E event, InteractionContext context);
+
+    /**
+     * @return true if the executor answers through the context, so that the interaction can be deferred automatically.
+     */
+    default boolean usesContext() {
+        return true;
+    }
+}
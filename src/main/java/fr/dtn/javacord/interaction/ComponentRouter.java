@@ -0,0 +1,293 @@
+package fr.dtn.javacord.interaction;
+
+import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.GenericSelectMenuInteractionEvent;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Routes the interactions of the components created by the bot (buttons, select menus and modals) by their custom id.
+ * <p>
+ * The custom ids created by the router start with {@link #PREFIX} : the interactions on other components are left
+ * to the event handlers of the bot, and are neither rate limited nor answered as expired.
+ * <p>
+ * Stateful components are registered with a generated id and kept in memory. They are removed once their time to live is over,
+ * once they are used if they are single-use, and, when the router is full, by batches of the least recently used ones.
+ * Lookups and single-use claims are a single operation on a concurrent map.
+ * <p>
+ * Stateless components have a custom id 'jc.&lt;key&gt;:&lt;payload&gt;', and are routed by the key before the first ':'
+ * to an executor registered once : they take no memory, and keep working after a restart or on another process of the bot.
+ */
+public class ComponentRouter {
+    private static final class Entry {
+        private final Class<?> type;
+        private final ComponentExecutor<?> executor;
+        private final boolean singleUse;
+        private final boolean expires;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        private Entry(Class<?> type, ComponentExecutor<?> executor, boolean singleUse, long ttl, long now) {
+            this.type = type;
+            this.executor = executor;
+            this.singleUse = singleUse;
+            this.expires = ttl > 0;
+            this.expiresAt = now + ttl;
+            this.lastAccess = now;
+        }
+
+        private boolean isExpired(long now) {
+            return expires && now - expiresAt > 0;
+        }
+    }
+
+    private record Stateless(Class<?> type, StatelessComponentExecutor<?> executor) {
+    }
+
+    /**
+     * The start of the custom ids of the components routed by the bot.
+     */
+    public static final String PREFIX = "jc.";
+
+    /**
+     * @return a new custom id for a stateful component.
+     */
+    public static String newId() {
+        return PREFIX + UUID.randomUUID();
+    }
+
+    /**
+     * @param id the custom id of a component.
+     * @return true if the component was created by the router, false if it must be handled by the event handlers of the bot.
+     */
+    public static boolean isRouted(String id) {
+        return id.startsWith(PREFIX);
+    }
+
+    /**
+     * @param id the custom id of a component created by the router.
+     * @return true if the component is a stateless component.
+     */
+    public static boolean isStateless(String id) {
+        return id.indexOf(ButtonPayload.SEPARATOR, PREFIX.length()) != -1;
+    }
+
+    /**
+     * @param event an interaction on a component.
+     * @return the kind of the component ('button', 'select' or 'modal'), used to name its metrics.
+     */
+    public static String getKind(IReplyCallback event) {
+        if (event instanceof ButtonInteractionEvent) {
+            return "button";
+        }
+
+        if (event instanceof GenericSelectMenuInteractionEvent<?, ?>) {
+            return "select";
+        }
+
+        return event instanceof ModalInteractionEvent ? "modal" : "component";
+    }
+
+    private final long defaultTtl;
+    private final int maxSize;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final ReentrantLock evictionLock;
+    private final ConcurrentHashMap<String, Stateless> statelessExecutors;
+
+    /**
+     * @param defaultTtl the time to live of the components that do not define their own, or zero to keep them until they are evicted.
+     * @param maxSize    the maximum number of stateful components, or zero for no limit.
+     */
+    public ComponentRouter(Duration defaultTtl, int maxSize) {
+        this.defaultTtl = defaultTtl.toNanos();
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>();
+        this.evictionLock = new ReentrantLock();
+        this.statelessExecutors = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registers the executor of the stateless components created with a key.
+     *
+     * @param key      the key, as short as possible as it is part of every custom id.
+     * @param type     the type of the interactions handled by the executor.
+     * @param executor the executor.
+     * @throws IllegalArgumentException if the key is empty, contains ':', or is already registered.
+     */
+    public <E extends IReplyCallback> void registerExecutor(String key, Class<E> type, StatelessComponentExecutor<? super E> executor) {
+        if (key.isEmpty() || key.indexOf(ButtonPayload.SEPARATOR) != -1) {
+            throw new IllegalArgumentException("The key of a stateless component cannot be empty or contain '" + ButtonPayload.SEPARATOR + "' : '" + key + "'");
+        }
+
+        if (statelessExecutors.putIfAbsent(key, new Stateless(type, executor)) != null) {
+            throw new IllegalArgumentException("A stateless component executor is already registered with key '" + key + "'");
+        }
+    }
+
+    /**
+     * @param key   the key of a stateless component.
+     * @param event the interaction on the component.
+     * @return the executor of the key, or null if there is none or if it does not handle this type of interaction.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends IReplyCallback> StatelessComponentExecutor<? super E> getExecutor(String key, E event) {
+        Stateless stateless = statelessExecutors.get(key);
+
+        if (stateless == null || !stateless.type().isInstance(event)) {
+            return null;
+        }
+
+        return (StatelessComponentExecutor<? super E>) stateless.executor();
+    }
+
+    /**
+     * Registers a stateful component with a new custom id, evicting the least recently used components if the router is full.
+     *
+     * @param type      the type of the interactions handled by the executor.
+     * @param executor  the executor.
+     * @param ttl       how long the component can be used, or null to use the default time to live.
+     * @param singleUse whether the component can only be used once.
+     * @return the custom id of the component.
+     */
+    public <E extends IReplyCallback> String register(Class<E> type, ComponentExecutor<? super E> executor, Duration ttl, boolean singleUse) {
+        return register(newId(), type, executor, ttl, singleUse);
+    }
+
+    /**
+     * Registers a stateful component with a given custom id.
+     *
+     * @param id the custom id of the component, created with {@link #newId()}.
+     * @throws IllegalArgumentException if the custom id does not start with {@link #PREFIX}, or contains ':'.
+     * @see #register(Class, ComponentExecutor, Duration, boolean)
+     */
+    public <E extends IReplyCallback> String register(String id, Class<E> type, ComponentExecutor<? super E> executor, Duration ttl, boolean singleUse) {
+        if (!isRouted(id) || isStateless(id)) {
+            throw new IllegalArgumentException("The custom id of a stateful component must be created with ComponentRouter#newId : '" + id + "'");
+        }
+
+        long now = System.nanoTime();
+        long nanos = ttl == null ? defaultTtl : ttl.toNanos();
+
+        entries.put(id, new Entry(type, executor, singleUse, nanos, now));
+
+        if (maxSize > 0 && entries.size() > maxSize) {
+            evictLeastRecentlyUsed();
+        }
+
+        return id;
+    }
+
+    /**
+     * Removes the oldest tenth of the components at once, so the cost of sorting them is shared by many registrations.
+     */
+    private void evictLeastRecentlyUsed() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+
+        try {
+            int excess = entries.size() - maxSize;
+
+            if (excess <= 0) {
+                return;
+            }
+
+            List<Map.Entry<String, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+            snapshot.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+
+            int toEvict = Math.min(snapshot.size(), Math.max(excess, maxSize / 10));
+
+            for (int i = 0; i < toEvict; i++) {
+                entries.remove(snapshot.get(i).getKey(), snapshot.get(i).getValue());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * @param id the custom id of a stateful component.
+     * @return the executor of the component, or null if it does not exist, or if it was evicted or expired.
+     */
+    public ComponentExecutor<?> get(String id) {
+        Entry entry = entries.get(id);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(id, entry);
+            return null;
+        }
+
+        return entry.executor;
+    }
+
+    /**
+     * Gets the executor of an interaction on a stateful component : a single-use component is removed, so only one interaction can claim it.
+     *
+     * @param id    the custom id of the component.
+     * @param event the interaction.
+     * @return the executor, or null if the component does not exist, was evicted, expired or already used,
+     * or if it does not handle this type of interaction.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends IReplyCallback> ComponentExecutor<? super E> claim(String id, E event) {
+        Entry entry = entries.get(id);
+        long now = System.nanoTime();
+
+        if (entry == null || !entry.type.isInstance(event)) {
+            return null;
+        }
+
+        if (entry.isExpired(now)) {
+            entries.remove(id, entry);
+            return null;
+        }
+
+        if (entry.singleUse) {
+            return entries.remove(id, entry) ? (ComponentExecutor<? super E>) entry.executor : null;
+        }
+
+        entry.lastAccess = now;
+        return (ComponentExecutor<? super E>) entry.executor;
+    }
+
+    /**
+     * Removes a stateful component, so that its next interactions are handled as interactions on an expired component.
+     *
+     * @param id the custom id of the component.
+     */
+    public void remove(String id) {
+        entries.remove(id);
+    }
+
+    /**
+     * Removes the expired components.
+     */
+    public void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    /**
+     * @return the number of stateful components currently held in memory.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
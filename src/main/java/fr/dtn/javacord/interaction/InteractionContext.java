@@ -0,0 +1,185 @@
+package fr.dtn.javacord.interaction;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
+import net.dv8tion.jda.api.interactions.Interaction;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.callbacks.IMessageEditCallback;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the acknowledgement of an interaction, which Discord requires within 3 seconds.
+ * <p>
+ * If the interaction is still not acknowledged after the configured threshold, it is deferred automatically :
+ * slash commands with {@code deferReply}, components with {@code deferEdit}.
+ * The reply methods of the context then either reply to the interaction or send a message through its hook,
+ * depending on whether it was deferred, so executors do not have to know which one happened first.
+ */
+public class InteractionContext {
+    /**
+     * The time Discord gives to acknowledge an interaction.
+     */
+    public static final Duration ACK_DEADLINE = Duration.ofSeconds(3);
+
+    /**
+     * The time during which the hook of an acknowledged interaction can be used.
+     */
+    public static final Duration HOOK_LIFETIME = Duration.ofMinutes(15);
+
+    private static final int PENDING = 0;
+    private static final int REPLIED = 1;
+    private static final int DEFERRED = 2;
+
+    private final IReplyCallback event;
+    private final long receivedAt;
+    private final boolean ephemeral;
+    private final AckLatency latency;
+    private final AtomicInteger state;
+
+    private volatile ScheduledFuture<?> deferral;
+
+    /**
+     * Gets the time at which Discord created an interaction, on the {@link System#nanoTime()} clock.
+     * The acknowledgement deadline starts then, and not when the bot handles the interaction,
+     * which may be much later when the event waited in a dispatch queue.
+     *
+     * @param interaction the interaction.
+     * @return the value to give as the reception time of the context.
+     */
+    public static long getReceivedAt(Interaction interaction) {
+        long elapsed = System.currentTimeMillis() - interaction.getTimeCreated().toInstant().toEpochMilli();
+
+        // A local clock behind the one of Discord would give a creation time in the future
+        return System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(Math.max(elapsed, 0));
+    }
+
+    /**
+     * @param event      the interaction.
+     * @param receivedAt the {@link System#nanoTime()} at which the interaction was created, see {@link #getReceivedAt(Interaction)}.
+     * @param ephemeral  whether the automatic deferral and the replies of the context are ephemeral.
+     * @param latency    where the acknowledgement latency is recorded.
+     */
+    public InteractionContext(IReplyCallback event, long receivedAt, boolean ephemeral, AckLatency latency) {
+        this.event = event;
+        this.receivedAt = receivedAt;
+        this.ephemeral = ephemeral;
+        this.latency = latency;
+        this.state = new AtomicInteger(PENDING);
+    }
+
+    /**
+     * Defers the interaction once the threshold is over, or at once if it is already over, if it is still not acknowledged.
+     */
+    public void scheduleDeferral(ScheduledExecutorService scheduler, Duration threshold) {
+        long delay = threshold.toNanos() - (System.nanoTime() - receivedAt);
+        this.deferral = scheduler.schedule(this::deferIfPending, Math.max(delay, 0), TimeUnit.NANOSECONDS);
+    }
+
+    private void deferIfPending() {
+        // The executor may have answered with the event itself rather than with the context
+        if (event.isAcknowledged()) {
+            acknowledgedExternally();
+            return;
+        }
+
+        if (!state.compareAndSet(PENDING, DEFERRED)) {
+            return;
+        }
+
+        latency.record(System.nanoTime() - receivedAt, true);
+
+        // A modal can only be deferred with deferEdit if it was opened from a message component
+        if (event instanceof IMessageEditCallback component && !(event instanceof ModalInteractionEvent modal && modal.getMessage() == null)) {
+            component.deferEdit().queue();
+        } else {
+            event.deferReply(ephemeral).queue();
+        }
+    }
+
+    private void acknowledgedExternally() {
+        if (state.compareAndSet(PENDING, REPLIED)) {
+            latency.record(System.nanoTime() - receivedAt, false);
+        }
+    }
+
+    /**
+     * Called once the executor has returned : records the latency of executors that answered with the event itself.
+     */
+    public void executed() {
+        if (event.isAcknowledged()) {
+            acknowledgedExternally();
+            cancelDeferral();
+        }
+    }
+
+    private void cancelDeferral() {
+        ScheduledFuture<?> deferral = this.deferral;
+
+        if (deferral != null) {
+            deferral.cancel(false);
+        }
+    }
+
+    /**
+     * Replies to the interaction, or sends a message through its hook if it is already acknowledged.
+     */
+    public void reply(MessageCreateData message) {
+        if (!event.isAcknowledged() && state.compareAndSet(PENDING, REPLIED)) {
+            cancelDeferral();
+            latency.record(System.nanoTime() - receivedAt, false);
+            event.reply(message).setEphemeral(ephemeral).queue();
+        } else {
+            event.getHook().sendMessage(message).setEphemeral(ephemeral).queue();
+        }
+    }
+
+    public void reply(String message) {
+        reply(MessageCreateData.fromContent(message));
+    }
+
+    public void replyEmbeds(MessageEmbed embed, MessageEmbed... others) {
+        if (!event.isAcknowledged() && state.compareAndSet(PENDING, REPLIED)) {
+            cancelDeferral();
+            latency.record(System.nanoTime() - receivedAt, false);
+            event.replyEmbeds(embed, others).setEphemeral(ephemeral).queue();
+        } else {
+            event.getHook().sendMessageEmbeds(embed, others).setEphemeral(ephemeral).queue();
+        }
+    }
+
+    /**
+     * @return true if the interaction was deferred automatically, in which case the answer must go through the hook.
+     */
+    public boolean isDeferred() {
+        return state.get() == DEFERRED;
+    }
+
+    public boolean isAcknowledged() {
+        return state.get() != PENDING || event.isAcknowledged();
+    }
+
+    /**
+     * @return the time left to acknowledge the interaction or, once it is acknowledged, to use its hook.
+     */
+    public Duration getRemainingTime() {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - receivedAt);
+        Duration remaining = (isAcknowledged() ? HOOK_LIFETIME : ACK_DEADLINE).minus(elapsed);
+
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    public InteractionHook getHook() {
+        return event.getHook();
+    }
+
+    public IReplyCallback getEvent() {
+        return event;
+    }
+}
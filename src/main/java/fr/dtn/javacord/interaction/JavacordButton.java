@@ -4,29 +4,73 @@ import fr.dtn.javacord.Bot;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.interactions.components.buttons.ButtonStyle;
 
+import java.time.Duration;
 import java.util.UUID;
 
-public class JavacordButton {
+public class JavacordButton implements ComponentExecutor<ButtonInteractionEvent> {
     private final UUID id;
+    private final String customId;
     private final ButtonStyle style;
     private final String label;
     private final ButtonExecutor executor;
+    private final Duration ttl;
+    private final boolean singleUse;
 
     public JavacordButton(ButtonStyle style, String label, ButtonExecutor executor) {
+        this(style, label, executor, null, false);
+    }
+
+    public JavacordButton(ButtonStyle style, String label, ButtonExecutor.WithContext executor) {
+        this(style, label, (ButtonExecutor) executor);
+    }
+
+    /**
+     * @param ttl       how long the button can be clicked, or null to use the default time to live of the bot.
+     * @param singleUse whether the button can only be clicked once.
+     */
+    public JavacordButton(ButtonStyle style, String label, ButtonExecutor executor, Duration ttl, boolean singleUse) {
         this.id = UUID.randomUUID();
+        this.customId = ComponentRouter.PREFIX + id;
         this.style = style;
         this.label = label;
         this.executor = executor;
+        this.ttl = ttl;
+        this.singleUse = singleUse;
     }
 
     public void execute(Bot bot, ButtonInteractionEvent event) {
         executor.run(bot, event);
     }
 
+    public void execute(Bot bot, ButtonInteractionEvent event, InteractionContext context) {
+        if (executor instanceof ButtonExecutor.WithContext contextual) {
+            contextual.run(bot, event, context);
+        } else {
+            executor.run(bot, event);
+        }
+    }
+
+    @Override
+    public void run(Bot bot, ButtonInteractionEvent event, InteractionContext context) {
+        execute(bot, event, context);
+    }
+
+    @Override
+    public boolean usesContext() {
+        return executor instanceof ButtonExecutor.WithContext;
+    }
+
     public UUID getId() {
         return id;
     }
 
+    /**
+     * @return the custom id of the button on Discord.
+     */
+    public String getCustomId() {
+        return customId;
+    }
+
     public ButtonStyle getStyle() {
         return style;
     }
@@ -34,4 +78,15 @@ public class JavacordButton {
     public String getLabel() {
         return label;
     }
+
+    /**
+     * @return how long the button can be clicked, or null to use the default time to live of the bot.
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public boolean isSingleUse() {
+        return singleUse;
+    }
 }
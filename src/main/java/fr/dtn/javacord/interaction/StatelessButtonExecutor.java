@@ -0,0 +1,11 @@
+package fr.dtn.javacord.interaction;
+
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+
+/**
+ * Handles the clicks on every stateless button created with the key it is registered with.
+ * The data needed to handle a click is read from the payload of the button, and not kept in memory.
+ */
+@FunctionalInterface
+public interface StatelessButtonExecutor extends StatelessComponentExecutor<ButtonInteractionEvent> {
+}
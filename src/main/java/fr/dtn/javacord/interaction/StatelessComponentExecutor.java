@@ -0,0 +1,15 @@
+package fr.dtn.javacord.interaction;
+
+import fr.dtn.javacord.Bot;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+
+/**
+ * Handles the interactions of every stateless component created with the key it is registered with.
+ * The data needed to handle an interaction is read from the payload of the component, and not kept in memory.
+ *
+ * @param <E> the type of the interaction event.
+ */
+@FunctionalInterface
+public interface StatelessComponentExecutor<E extends IReplyCallback> {
+    void run(Bot bot, E event, ButtonPayload payload, InteractionContext context);
+}
@@ -0,0 +1,65 @@
+package fr.dtn.javacord.ratelimit;
+
+import com.moandjiezana.toml.Toml;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The configuration of a token bucket : one token is given back every {@code cooldown}, and at most {@code burst} tokens can be stored.
+ *
+ * @param cooldown the time needed to get a token back.
+ * @param burst    the maximum number of tokens, i.e. the number of uses allowed in a row.
+ * @param scope    who shares a same bucket.
+ */
+public record RateLimit(Duration cooldown, int burst, RateLimitScope scope) {
+    private static final Logger logger = LogManager.getLogger();
+
+    public RateLimit {
+        if (cooldown.isNegative() || cooldown.isZero()) {
+            throw new IllegalArgumentException("The cooldown of a rate limit must be > 0");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("The burst of a rate limit must be > 0");
+        }
+    }
+
+    /**
+     * Reads a rate limit from the 'cooldown' (in seconds), 'burst' and 'scope' values of a table.
+     *
+     * @param table    the table, may be null.
+     * @param fallback the rate limit to use for the missing values, may be null.
+     * @return the rate limit, or null if there is no cooldown, or if the cooldown is 0.
+     */
+    public static RateLimit fromToml(Toml table, RateLimit fallback) {
+        Map<String, Object> values = table == null ? Map.of() : table.toMap();
+
+        Duration cooldown = fallback == null ? Duration.ZERO : fallback.cooldown();
+        int burst = fallback == null ? 1 : fallback.burst();
+        RateLimitScope scope = fallback == null ? RateLimitScope.USER : fallback.scope();
+
+        if (values.get("cooldown") instanceof Number seconds) {
+            cooldown = Duration.ofMillis(Math.round(seconds.doubleValue() * 1000));
+        }
+
+        if (values.get("burst") instanceof Number number) {
+            burst = number.intValue();
+        }
+
+        if (values.get("scope") instanceof String scopeName) {
+            try {
+                scope = RateLimitScope.valueOf(scopeName.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.warn("The rate limit scope '{}' does not exist, using scope {}", scopeName, scope);
+            }
+        }
+
+        if (cooldown.isZero() || cooldown.isNegative()) {
+            return null;
+        }
+
+        return new RateLimit(cooldown, Math.max(1, burst), scope);
+    }
+}
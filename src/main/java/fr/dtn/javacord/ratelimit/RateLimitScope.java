@@ -0,0 +1,21 @@
+package fr.dtn.javacord.ratelimit;
+
+/**
+ * Who shares a same rate limit bucket.
+ */
+public enum RateLimitScope {
+    /**
+     * Every user has their own bucket.
+     */
+    USER,
+
+    /**
+     * Every guild has its own bucket, shared by all its members.
+     */
+    GUILD,
+
+    /**
+     * A single bucket is shared by everyone.
+     */
+    GLOBAL
+}
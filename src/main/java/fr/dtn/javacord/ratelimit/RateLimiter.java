@@ -0,0 +1,93 @@
+package fr.dtn.javacord.ratelimit;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.User;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket rate limiter, keyed by user, guild, or global according to the scope of its {@link RateLimit}.
+ * <p>
+ * Each bucket is a single atomic timestamp : the time at which the bucket will be full again
+ * (generic cell rate algorithm). Buckets that are full again are useless and are removed by {@link #evictIdle()},
+ * so the memory used by the limiter only depends on the number of recently active users or guilds.
+ */
+public class RateLimiter {
+    private final RateLimit limit;
+    private final long interval;
+    private final long tolerance;
+    private final ConcurrentHashMap<Long, AtomicLong> buckets;
+
+    public RateLimiter(RateLimit limit) {
+        this.limit = limit;
+        this.interval = limit.cooldown().toNanos();
+        this.tolerance = interval * (limit.burst() - 1);
+        this.buckets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Takes a token from the bucket of the given user or guild.
+     *
+     * @param user  the user who performs the action.
+     * @param guild the guild where the action is performed, may be null.
+     * @return true if the action is allowed, false if it is rate limited.
+     */
+    public boolean tryAcquire(User user, Guild guild) {
+        long key = switch (limit.scope()) {
+            case USER -> user.getIdLong();
+            case GUILD -> guild == null ? user.getIdLong() : guild.getIdLong();
+            case GLOBAL -> 0L;
+        };
+
+        return tryAcquire(key);
+    }
+
+    /**
+     * Takes a token from the bucket of the given key.
+     *
+     * @param key the key of the bucket.
+     * @return true if a token was available, false otherwise.
+     */
+    public boolean tryAcquire(long key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long full = bucket.get();
+            long start = full - now > 0 ? full : now;
+
+            if (start - now > tolerance) {
+                return false;
+            }
+
+            if (bucket.compareAndSet(full, start + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the buckets that are full again, as they are equivalent to missing buckets.
+     * A token taken concurrently with the eviction of its bucket may be given back early.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    /**
+     * @return the number of buckets currently held in memory.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    public RateLimit getLimit() {
+        return limit;
+    }
+}